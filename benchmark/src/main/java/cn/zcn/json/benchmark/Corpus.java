@@ -0,0 +1,179 @@
+package cn.zcn.json.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * 本地生成的基准测试语料。使用固定的随机种子，保证每次运行得到的内容完全一致。
+ *
+ * @author zicung
+ */
+public enum Corpus {
+
+    /**
+     * Object 与 Array 交替嵌套的深层文档
+     */
+    DEEP_NESTING {
+        @Override
+        String[] generate(Random random) {
+            StringBuilder sb = new StringBuilder();
+            int depth = 512;
+            for (int i = 0; i < depth; i++) {
+                if (i % 2 == 0) {
+                    sb.append("{\"level\":").append(i).append(",\"name\":\"node-").append(i).append("\",\"child\":");
+                } else {
+                    sb.append("[").append(random.nextInt(1000)).append(",true,");
+                }
+            }
+            sb.append("null");
+            for (int i = depth - 1; i >= 0; i--) {
+                sb.append(i % 2 == 0 ? "}" : "]");
+            }
+            return new String[]{sb.toString()};
+        }
+    },
+
+    /**
+     * 包含大量 member 的单个 Object
+     */
+    WIDE_OBJECT {
+        @Override
+        String[] generate(Random random) {
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < 5000; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append("\"field_").append(i).append("\":");
+                appendScalar(sb, random);
+            }
+            return new String[]{sb.append("}").toString()};
+        }
+    },
+
+    /**
+     * 由长字符串组成的 Array，其中混有非 ASCII 字符
+     */
+    LONG_STRINGS {
+        @Override
+        String[] generate(Random random) {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < 64; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append("\"");
+                appendText(sb, random, 16 * 1024);
+                sb.append("\"");
+            }
+            return new String[]{sb.append("]").toString()};
+        }
+    },
+
+    /**
+     * 以数字为主的 Array，例如时间序列、带符号的小数坐标以及科学记法的测量值
+     */
+    NUMBER_ARRAYS {
+        @Override
+        String[] generate(Random random) {
+            StringBuilder sb = new StringBuilder("{\"values\":[");
+            for (int i = 0; i < 100_000; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append(random.nextInt(Integer.MAX_VALUE));
+            }
+            sb.append("],\"points\":[");
+            for (int i = 0; i < 10_000; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append("[").append(random.nextDouble() * 360 - 180).append(",")
+                        .append(random.nextDouble() * 180 - 90).append(",")
+                        .append(random.nextInt(10_000)).append("]");
+            }
+            sb.append("],\"measurements\":[");
+            for (int i = 0; i < 10_000; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append(random.nextBoolean() ? "-" : "").append(random.nextInt(10)).append(".")
+                        .append(random.nextInt(1_000_000)).append("e").append(random.nextInt(40) - 20);
+            }
+            return new String[]{sb.append("]}").toString()};
+        }
+    },
+
+    /**
+     * 大量小文档，模拟高频的小请求
+     */
+    SMALL_DOCUMENTS {
+        @Override
+        String[] generate(Random random) {
+            String[] documents = new String[1000];
+            for (int i = 0; i < documents.length; i++) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("{\"id\":").append(i)
+                        .append(",\"user\":\"user-").append(random.nextInt(100_000)).append("\"")
+                        .append(",\"active\":").append(random.nextBoolean())
+                        .append(",\"score\":").append(random.nextInt(1000))
+                        .append(",\"tags\":[\"a\",\"b\",\"c\"]")
+                        .append(",\"meta\":{\"region\":\"cn-").append(random.nextInt(10)).append("\",\"retry\":null}}");
+                documents[i] = sb.toString();
+            }
+            return documents;
+        }
+    };
+
+    private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor " +
+            "解析 序列化 字符串 数组 对象 ünïcödé";
+
+    /**
+     * 生成语料，每个元素是一个完整的 JSON 文档
+     */
+    public String[] documents() {
+        return generate(new Random(42));
+    }
+
+    /**
+     * 生成 UTF-8 编码的语料
+     */
+    public byte[][] utf8Documents() {
+        String[] documents = documents();
+        byte[][] bytes = new byte[documents.length][];
+        for (int i = 0; i < documents.length; i++) {
+            bytes[i] = documents[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    abstract String[] generate(Random random);
+
+    private static void appendScalar(StringBuilder sb, Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                sb.append("\"");
+                appendText(sb, random, 8 + random.nextInt(24));
+                sb.append("\"");
+                break;
+            case 1:
+                sb.append(random.nextInt(Integer.MAX_VALUE));
+                break;
+            case 2:
+                sb.append("true");
+                break;
+            case 3:
+                sb.append("false");
+                break;
+            default:
+                sb.append("null");
+        }
+    }
+
+    private static void appendText(StringBuilder sb, Random random, int length) {
+        int end = sb.length() + length;
+        while (sb.length() < end) {
+            sb.append(WORDS.charAt(random.nextInt(WORDS.length())));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package cn.zcn.json.benchmark;
+
+import cn.zcn.json.stream.DefaultJsonListener;
+import cn.zcn.json.stream.DomReader;
+import cn.zcn.json.stream.JsonReader;
+import cn.zcn.json.stream.JsonReader2;
+import cn.zcn.json.stream.JsonValidator;
+import cn.zcn.json.stream.TapeReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较 {@link JsonReader}、{@link JsonReader2} 与 {@link DomReader} 的解析吞吐量。
+ * 使用 {@code -prof gc} 运行可以同时得到分配速率。
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReaderBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private String[] documents;
+
+    private byte[][] utf8Documents;
+
+    @Setup
+    public void setup() {
+        documents = corpus.documents();
+        utf8Documents = corpus.utf8Documents();
+    }
+
+    @Benchmark
+    public void jsonReader(Blackhole bh) {
+        for (String document : documents) {
+            bh.consume(new JsonReader(new StringReader(document), new DefaultJsonListener()).read());
+        }
+    }
+
+    @Benchmark
+    public void jsonReader2(Blackhole bh) {
+        for (String document : documents) {
+            bh.consume(new JsonReader2(new StringReader(document), new DefaultJsonListener()).read());
+        }
+    }
+
+    @Benchmark
+    public void jsonReaderUtf8(Blackhole bh) {
+        for (byte[] document : utf8Documents) {
+            bh.consume(new JsonReader(document, new DefaultJsonListener()).read());
+        }
+    }
+
+    @Benchmark
+    public void jsonReader2Utf8(Blackhole bh) {
+        for (byte[] document : utf8Documents) {
+            bh.consume(new JsonReader2(document, new DefaultJsonListener()).read());
+        }
+    }
+
+    @Benchmark
+    public void domReader(Blackhole bh) {
+        for (String document : documents) {
+            bh.consume(new DomReader(new StringReader(document)).read());
+        }
+    }
+
+    @Benchmark
+    public void domReaderUtf8(Blackhole bh) {
+        for (byte[] document : utf8Documents) {
+            bh.consume(new DomReader(document).read());
+        }
+    }
+
+    @Benchmark
+    public void jsonValidatorUtf8(Blackhole bh) {
+        for (byte[] document : utf8Documents) {
+            bh.consume(new JsonValidator(document).isValid());
+        }
+    }
+
+    @Benchmark
+    public void tapeReader(Blackhole bh) {
+        for (byte[] document : utf8Documents) {
+            bh.consume(new TapeReader(document).read());
+        }
+    }
+}
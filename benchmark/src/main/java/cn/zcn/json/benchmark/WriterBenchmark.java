@@ -0,0 +1,67 @@
+package cn.zcn.json.benchmark;
+
+import cn.zcn.json.Json;
+import cn.zcn.json.ast.JsonValue;
+import cn.zcn.json.stream.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 {@link JsonWriter} 在压缩与格式化两种模式下，分别写入 {@code Writer} 与 UTF-8 {@code OutputStream} 的序列化吞吐量。
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WriterBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    @Param({"true", "false"})
+    public boolean compressed;
+
+    private JsonValue[] values;
+
+    private int capacity;
+
+    @Setup
+    public void setup() {
+        String[] documents = corpus.documents();
+        values = new JsonValue[documents.length];
+        for (int i = 0; i < documents.length; i++) {
+            values[i] = Json.read(documents[i]);
+            capacity = Math.max(capacity, documents[i].length());
+        }
+    }
+
+    @Benchmark
+    public void jsonWriter(Blackhole bh) {
+        for (JsonValue value : values) {
+            StringWriter out = new StringWriter(capacity);
+            JsonWriter writer = new JsonWriter(out);
+            writer.setCompressed(compressed);
+            writer.write(value);
+            bh.consume(out.getBuffer());
+        }
+    }
+
+    @Benchmark
+    public void jsonWriterUtf8(Blackhole bh) {
+        for (JsonValue value : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(capacity);
+            JsonWriter writer = new JsonWriter(out);
+            writer.setCompressed(compressed);
+            writer.write(value);
+            bh.consume(out);
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package cn.zcn.json;
 
 import cn.zcn.json.ast.*;
-import cn.zcn.json.stream.DefaultJsonListener;
+import cn.zcn.json.stream.DomReader;
 import cn.zcn.json.stream.JsonReader;
+import cn.zcn.json.stream.JsonValidator;
+import cn.zcn.json.stream.ParallelArrayReader;
+import cn.zcn.json.stream.ProjectingJsonListener;
+import cn.zcn.json.stream.Projection;
+import cn.zcn.json.stream.TapeReader;
+import cn.zcn.json.stream.ValidationResult;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Convenient JSON read method.
@@ -14,15 +23,178 @@ import java.nio.charset.StandardCharsets;
  */
 public class Json {
 
+    /**
+     * 每个线程复用的 reader，见 {@link Readers}
+     */
+    private static final ThreadLocal<Readers> READERS = ThreadLocal.withInitial(Readers::new);
+
     public static JsonValue read(String json) {
-        return read(new StringReader(json));
+        Readers readers = READERS.get();
+        try {
+            readers.chars.reset(readers.text.reset(json));
+            return readers.chars.read();
+        } finally {
+            //不再引用本次的输入和结果
+            readers.chars.reset(readers.text.reset(""));
+        }
     }
 
+    /**
+     * 读取 UTF-8 编码的 JSON，直接在 {@code byte[]} 上解析，不会预先解码整个输入。
+     */
     public static JsonValue read(byte[] bytes) {
-        return read(new StringReader(new String(bytes, StandardCharsets.UTF_8)));
+        Readers readers = READERS.get();
+        try {
+            readers.bytes.reset(bytes);
+            return readers.bytes.read();
+        } finally {
+            readers.bytes.reset(Readers.NO_BYTES);
+        }
+    }
+
+    /**
+     * 只校验 JSON 语法，不创建 Json Value 与 {@code String}。输入不合法时返回包含错误位置与原因的结果，不会抛出异常。
+     * 校验合法的输入时不会分配内存。
+     */
+    public static ValidationResult validate(String json) {
+        Readers readers = READERS.get();
+        try {
+            readers.charsValidator.reset(readers.text.reset(json));
+            return readers.charsValidator.validate();
+        } finally {
+            readers.charsValidator.reset(readers.text.reset(""));
+        }
+    }
+
+    /**
+     * 只校验 UTF-8 编码的 JSON 的语法。校验合法的输入时不会分配内存。
+     */
+    public static ValidationResult validate(byte[] bytes) {
+        Readers readers = READERS.get();
+        try {
+            readers.bytesValidator.reset(bytes);
+            return readers.bytesValidator.validate();
+        } finally {
+            readers.bytesValidator.reset(Readers.NO_BYTES);
+        }
+    }
+
+    public static boolean isValid(String json) {
+        return validate(json).isValid();
+    }
+
+    public static boolean isValid(byte[] bytes) {
+        return validate(bytes).isValid();
     }
 
-    private static JsonValue read(Reader reader) {
-        return new JsonReader(reader, new DefaultJsonListener()).read();
+    /**
+     * 只读取 {@code projection} 中保留的 member，其余 member 在扫描时直接跳过。
+     */
+    public static JsonValue read(String json, Projection projection) {
+        return new JsonReader(new StringReader(json), new ProjectingJsonListener(projection)).read();
+    }
+
+    /**
+     * 只读取 {@code projection} 中保留的 member，直接在 UTF-8 编码的 {@code byte[]} 上解析。
+     */
+    public static JsonValue read(byte[] bytes, Projection projection) {
+        return new JsonReader(bytes, new ProjectingJsonListener(projection)).read();
+    }
+
+    /**
+     * 延迟读取 UTF-8 编码的 JSON。只扫描一遍输入并建立结构索引，member name、{@code String} 以及子节点在被访问时才会创建。
+     * 返回的 Json Value 引用了 {@code bytes}，使用期间不能修改 {@code bytes}。
+     * <p>
+     * 延迟创建的 JSON Object 与 JSON Array 在读取时也会修改内部状态，不是线程安全的。
+     * 在全部加载之前（例如调用 {@code toString()} 之前）不能在多个线程之间共享。
+     */
+    public static JsonValue readLazy(byte[] bytes) {
+        return new TapeReader(bytes).read();
+    }
+
+    /**
+     * 读取 UTF-8 编码的 {@link ByteBuffer}，支持 direct buffer。读取范围为 buffer 的 position 至 limit，不会修改 buffer 的 position。
+     */
+    public static JsonValue read(ByteBuffer buffer) {
+        return new DomReader(buffer).read();
+    }
+
+    /**
+     * 读取 UTF-8 编码的 JSON 文件。文件通过 {@link FileChannel#map} 按窗口映射到内存中解析，不会将整个文件加载到堆中。
+     */
+    public static JsonValue read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new DomReader(channel).read();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+
+    /**
+     * 并行读取根节点是 JSON Array 的大文件，element 序列在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中分段解析后按顺序拼接。
+     * 输入较小或者根节点不是 JSON Array 时与 {@link #read(Path)} 相同。
+     */
+    public static JsonValue readParallel(Path path) {
+        return new ParallelArrayReader(path).read();
+    }
+
+    /**
+     * 线程内复用的 reader。每次读取前通过 reset 清空上一次的状态，字符缓存、string buffer 以及嵌套栈都会被复用。
+     */
+    private static final class Readers {
+
+        static final byte[] NO_BYTES = new byte[0];
+
+        /**
+         * 读取 {@code String} 时共享的 reader
+         */
+        final TextReader text = new TextReader();
+
+        final DomReader chars = new DomReader(text);
+
+        final DomReader bytes = new DomReader(NO_BYTES);
+
+        final JsonValidator charsValidator = new JsonValidator(text);
+
+        final JsonValidator bytesValidator = new JsonValidator(NO_BYTES);
+    }
+
+    /**
+     * 可以重新设置内容的 {@link StringReader}，读取 {@code String} 时不需要每次都创建新的 reader
+     */
+    private static final class TextReader extends Reader {
+
+        private String text = "";
+
+        /**
+         * 下一个将要读取的 char 的索引位置
+         */
+        private int next;
+
+        TextReader reset(String text) {
+            this.text = text;
+            this.next = 0;
+            return this;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (next >= text.length()) {
+                return -1;
+            }
+
+            int n = Math.min(len, text.length() - next);
+            text.getChars(next, next + n, cbuf, off);
+            next += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            reset("");
+        }
     }
 }
@@ -0,0 +1,59 @@
+package cn.zcn.json.ast;
+
+/**
+ * 直接存储 {@code double} 的 JSON Primitive，不会创建 {@link Double}
+ *
+ * @author zicung
+ */
+final class DoublePrimitive extends JsonPrimitive {
+
+    private final double value;
+
+    DoublePrimitive(double value) {
+        super(NUMBER_TYPE, null);
+        this.value = value;
+    }
+
+    @Override
+    public Number getAsNumber() {
+        return value;
+    }
+
+    @Override
+    public Integer getAsInteger() {
+        return (int) value;
+    }
+
+    @Override
+    public Float getAsFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public Double getAsDouble() {
+        return value;
+    }
+
+    @Override
+    public Short getAsShort() {
+        return (short) value;
+    }
+
+    @Override
+    Object value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DoublePrimitive) {
+            return Double.compare(((DoublePrimitive) o).value, value) == 0;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+}
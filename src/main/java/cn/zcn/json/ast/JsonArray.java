@@ -5,12 +5,46 @@ import java.util.function.Consumer;
 
 /**
  * 用于表示 JSON Array 的类
+ * <p>
+ * 只包含 {@code long} 或只包含 {@code double} 的 JSON Array 会直接存储在 {@code long[]}、{@code double[]} 中，
+ * 不会为每个元素创建 {@code JsonPrimitive}。当添加了其它类型的元素时，会转换为 {@code List<JsonValue>} 存储。
  *
  * @author zicung
  */
 public class JsonArray extends JsonValue implements Collection<JsonValue> {
 
-    private final List<JsonValue> values = new ArrayList<>();
+    /**
+     * 使用 {@code values} 存储元素
+     */
+    private static final int GENERAL = 0;
+
+    /**
+     * 使用 {@code longs} 存储元素
+     */
+    private static final int LONGS = 1;
+
+    /**
+     * 使用 {@code doubles} 存储元素
+     */
+    private static final int DOUBLES = 2;
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * 当前的存储方式
+     */
+    private int storage = GENERAL;
+
+    private List<JsonValue> values = new ArrayList<>();
+
+    private long[] longs;
+
+    private double[] doubles;
+
+    /**
+     * {@code longs} 或 {@code doubles} 中元素的数量
+     */
+    private int primitiveSize;
 
     public JsonArray() {
 
@@ -32,7 +66,9 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @param val value
      */
     public void addString(String val) {
-        values.add(new JsonPrimitive(val));
+        load();
+        inflate();
+        values.add(JsonPrimitive.valueOf(val));
     }
 
     /**
@@ -41,6 +77,8 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @param val 待添加的值
      */
     public void addShort(short val) {
+        load();
+        inflate();
         values.add(new JsonPrimitive(val));
     }
 
@@ -50,16 +88,75 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @param val 待添加的值
      */
     public void addInteger(int val) {
-        values.add(new JsonPrimitive(val));
+        load();
+        inflate();
+        values.add(JsonPrimitive.valueOf(val));
     }
 
     /**
-     * 在 JSON Array 的尾部追加一个 {@code string}
+     * 在 JSON Array 的尾部追加一个 {@code long}
+     *
+     * @param val 待添加的值
+     */
+    public void addLong(long val) {
+        load();
+        appendLong(val);
+    }
+
+    /**
+     * 在 JSON Array 的尾部追加一个 {@code long}，不会调用 {@link #load()}。供延迟解析的子类在 {@link #load()} 中填充元素。
+     *
+     * @param val 待添加的值
+     */
+    protected final void appendLong(long val) {
+        if (storage == GENERAL && values.isEmpty()) {
+            storage = LONGS;
+            longs = new long[DEFAULT_CAPACITY];
+            values = null;
+        }
+
+        if (storage == LONGS) {
+            if (primitiveSize == longs.length) {
+                longs = Arrays.copyOf(longs, newCapacity());
+            }
+            longs[primitiveSize++] = val;
+        } else {
+            inflate();
+            values.add(JsonPrimitive.valueOf(val));
+        }
+    }
+
+    /**
+     * 在 JSON Array 的尾部追加一个 {@code double}
      *
      * @param val 待添加的值
      */
     public void addDouble(double val) {
-        values.add(new JsonPrimitive(val));
+        load();
+        appendDouble(val);
+    }
+
+    /**
+     * 在 JSON Array 的尾部追加一个 {@code double}，不会调用 {@link #load()}。供延迟解析的子类在 {@link #load()} 中填充元素。
+     *
+     * @param val 待添加的值
+     */
+    protected final void appendDouble(double val) {
+        if (storage == GENERAL && values.isEmpty()) {
+            storage = DOUBLES;
+            doubles = new double[DEFAULT_CAPACITY];
+            values = null;
+        }
+
+        if (storage == DOUBLES) {
+            if (primitiveSize == doubles.length) {
+                doubles = Arrays.copyOf(doubles, newCapacity());
+            }
+            doubles[primitiveSize++] = val;
+        } else {
+            inflate();
+            values.add(JsonPrimitive.valueOf(val));
+        }
     }
 
     /**
@@ -68,6 +165,8 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @param val 待添加的值
      */
     public void addFloat(float val) {
+        load();
+        inflate();
         values.add(new JsonPrimitive(val));
     }
 
@@ -77,6 +176,8 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @param obj 待添加的  {@code JsonObject}
      */
     public void addObject(JsonObject obj) {
+        load();
+        inflate();
         values.add(obj);
     }
 
@@ -86,6 +187,8 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @param arr 待添加的 {@code JsonArray}
      */
     public void addArray(JsonArray arr) {
+        load();
+        inflate();
         values.add(arr);
     }
 
@@ -96,7 +199,113 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @return JsonValue
      */
     public JsonValue get(int index) {
-        return values.get(index);
+        load();
+        switch (storage) {
+            case LONGS:
+                checkIndex(index);
+                return JsonPrimitive.valueOf(longs[index]);
+            case DOUBLES:
+                checkIndex(index);
+                return JsonPrimitive.valueOf(doubles[index]);
+            default:
+                return values.get(index);
+        }
+    }
+
+    /**
+     * 获取指定位置上的 JSON Value，并转化为 {@code long}
+     *
+     * @param index 索引
+     * @return long
+     * @throws UnsupportedOperationException 指定位置上的 JSON Value 不是一个 {@code Number}
+     */
+    public long getLong(int index) {
+        load();
+        switch (storage) {
+            case LONGS:
+                checkIndex(index);
+                return longs[index];
+            case DOUBLES:
+                checkIndex(index);
+                return (long) doubles[index];
+            default:
+                return values.get(index).getAsNumber().longValue();
+        }
+    }
+
+    /**
+     * 获取指定位置上的 JSON Value，并转化为 {@code double}
+     *
+     * @param index 索引
+     * @return double
+     * @throws UnsupportedOperationException 指定位置上的 JSON Value 不是一个 {@code Number}
+     */
+    public double getDouble(int index) {
+        load();
+        switch (storage) {
+            case LONGS:
+                checkIndex(index);
+                return longs[index];
+            case DOUBLES:
+                checkIndex(index);
+                return doubles[index];
+            default:
+                return values.get(index).getAsNumber().doubleValue();
+        }
+    }
+
+    /**
+     * 所有元素是否以 {@code long[]} 存储。此时 {@link #getLong(int)} 直接读取存储的值，不会创建 {@link JsonPrimitive}
+     */
+    public boolean isLongArray() {
+        load();
+        return storage == LONGS;
+    }
+
+    /**
+     * 所有元素是否以 {@code double[]} 存储。此时 {@link #getDouble(int)} 直接读取存储的值，不会创建 {@link JsonPrimitive}
+     */
+    public boolean isDoubleArray() {
+        load();
+        return storage == DOUBLES;
+    }
+
+    /**
+     * 将 JSON Array 的所有元素转化为 {@code long[]}
+     *
+     * @return long[]
+     * @throws UnsupportedOperationException JSON Array 中存在不是 {@code Number} 的元素
+     */
+    public long[] toLongArray() {
+        load();
+        if (storage == LONGS) {
+            return Arrays.copyOf(longs, primitiveSize);
+        }
+
+        long[] array = new long[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getLong(i);
+        }
+        return array;
+    }
+
+    /**
+     * 将 JSON Array 的所有元素转化为 {@code double[]}
+     *
+     * @return double[]
+     * @throws UnsupportedOperationException JSON Array 中存在不是 {@code Number} 的元素
+     */
+    public double[] toDoubleArray() {
+        load();
+        if (storage == DOUBLES) {
+            return Arrays.copyOf(doubles, primitiveSize);
+        }
+
+        double[] array = new double[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getDouble(i);
+        }
+        return array;
     }
 
     /**
@@ -106,7 +315,7 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @return JsonObject
      */
     public JsonObject getAsObject(int index) {
-        return (JsonObject) values.get(index);
+        return (JsonObject) get(index);
     }
 
     /**
@@ -116,7 +325,7 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @return JsonArray
      */
     public JsonArray getAsArray(int index) {
-        return (JsonArray) values.get(index);
+        return (JsonArray) get(index);
     }
 
     /**
@@ -126,93 +335,345 @@ public class JsonArray extends JsonValue implements Collection<JsonValue> {
      * @return JsonPrimitive
      */
     public JsonPrimitive getAsPrimitive(int index) {
-        return (JsonPrimitive) values.get(index);
+        return (JsonPrimitive) get(index);
     }
 
     @Override
     public int size() {
-        return values.size();
+        load();
+        return storage == GENERAL ? values.size() : primitiveSize;
     }
 
     @Override
     public boolean isEmpty() {
-        return values.isEmpty();
+        return size() == 0;
     }
 
     @Override
     public boolean contains(Object o) {
-        return values.contains(o);
+        load();
+        return storage == GENERAL ? values.contains(o) : indexOfPrimitive(o) >= 0;
     }
 
     @Override
     public Object[] toArray() {
-        return values.toArray();
+        load();
+        return storage == GENERAL ? values.toArray() : materialize().toArray();
     }
 
     @Override
     public <T> T[] toArray(T[] a) {
-        return values.toArray(a);
+        load();
+        return storage == GENERAL ? values.toArray(a) : materialize().toArray(a);
     }
 
     @Override
     public boolean add(JsonValue val) {
-        return values.add(val);
+        load();
+        append(val);
+        return true;
+    }
+
+    /**
+     * 在 JSON Array 的尾部追加一个 JSON Value，不会调用 {@link #load()}。供延迟解析的子类在 {@link #load()} 中填充元素。
+     *
+     * @param val 待添加的 JSON Value
+     */
+    protected final void append(JsonValue val) {
+        if (storage != GENERAL && val instanceof JsonPrimitive && val.isNumber()) {
+            Number number = val.getAsNumber();
+            if (storage == LONGS && number instanceof Long) {
+                appendLong(number.longValue());
+                return;
+            } else if (storage == DOUBLES && number instanceof Double) {
+                appendDouble(number.doubleValue());
+                return;
+            }
+        }
+
+        inflate();
+        values.add(val);
     }
 
     @Override
     public boolean remove(Object o) {
-        return values.remove(o);
+        load();
+        if (storage == GENERAL) {
+            return values.remove(o);
+        }
+
+        int index = indexOfPrimitive(o);
+        if (index < 0) {
+            return false;
+        }
+
+        removePrimitive(index);
+        return true;
     }
 
     @Override
     public boolean containsAll(Collection<?> c) {
-        return values.containsAll(c);
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public boolean addAll(Collection<? extends JsonValue> c) {
-        return values.addAll(c);
+        //c 可能是自身：批量拷贝时先确定拷贝的长度，ArrayList#addAll 会先复制一份 c 的元素，都不会受追加的影响
+        if (c instanceof JsonArray) {
+            JsonArray other = (JsonArray) c;
+            load();
+            other.load();
+
+            if (other.storage != GENERAL && (storage == other.storage || storage == GENERAL && values.isEmpty())) {
+                boolean modified = other.primitiveSize > 0;
+                appendPrimitives(other);
+                return modified;
+            } else if (other.storage == GENERAL && storage == GENERAL) {
+                return values.addAll(other.values);
+            }
+        }
+
+        boolean modified = false;
+        for (JsonValue val : c) {
+            modified |= add(val);
+        }
+        return modified;
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        return values.removeAll(c);
+        load();
+        if (storage == GENERAL) {
+            return values.removeAll(c);
+        }
+
+        return removeIf(c::contains);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        return values.retainAll(c);
+        load();
+        if (storage == GENERAL) {
+            return values.retainAll(c);
+        }
+
+        return removeIf(val -> !c.contains(val));
     }
 
     @Override
     public Iterator<JsonValue> iterator() {
-        return values.iterator();
+        load();
+        return storage == GENERAL ? values.iterator() : new PrimitiveIterator();
     }
 
     @Override
     public void forEach(Consumer<? super JsonValue> action) {
-        values.forEach(action);
+        load();
+        if (storage == GENERAL) {
+            values.forEach(action);
+            return;
+        }
+
+        for (int i = 0; i < primitiveSize; i++) {
+            action.accept(get(i));
+        }
     }
 
     @Override
     public Spliterator<JsonValue> spliterator() {
-        return values.spliterator();
+        load();
+        if (storage == GENERAL) {
+            return values.spliterator();
+        }
+
+        return Spliterators.spliterator(iterator(), primitiveSize, Spliterator.ORDERED);
     }
 
     @Override
     public void clear() {
-        values.clear();
+        load();
+        storage = GENERAL;
+        values = new ArrayList<>();
+        longs = null;
+        doubles = null;
+        primitiveSize = 0;
     }
 
     @Override
     public boolean equals(Object o) {
+        load();
         if (o == this) return true;
         if (!(o instanceof JsonArray)) return false;
-        return ((JsonArray) o).values.equals(values);
+
+        JsonArray other = (JsonArray) o;
+        other.load();
+        if (storage == GENERAL && other.storage == GENERAL) {
+            return other.values.equals(values);
+        }
+
+        int size = size();
+        if (size != other.size()) return false;
+
+        for (int i = 0; i < size; i++) {
+            if (storage == LONGS && other.storage == LONGS) {
+                if (longs[i] != other.longs[i]) return false;
+            } else if (storage == DOUBLES && other.storage == DOUBLES) {
+                if (Double.doubleToLongBits(doubles[i]) != Double.doubleToLongBits(other.doubles[i])) return false;
+            } else if (!get(i).equals(other.get(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return values.hashCode();
+        load();
+        if (storage == GENERAL) {
+            return values.hashCode();
+        }
+
+        //与 List#hashCode 的计算方式保持一致
+        int hashCode = 1;
+        for (int i = 0; i < primitiveSize; i++) {
+            hashCode = 31 * hashCode + (storage == LONGS ? Long.hashCode(longs[i]) : Double.hashCode(doubles[i]));
+        }
+        return hashCode;
+    }
+
+    /**
+     * 在访问元素之前调用。延迟解析的子类在此时加载全部元素，之后的所有操作都作用于已加载的元素。
+     */
+    protected void load() {
+
+    }
+
+    /**
+     * 将另一个使用相同存储方式的 JSON Array 的元素批量拷贝到尾部
+     */
+    private void appendPrimitives(JsonArray other) {
+        if (storage == GENERAL) {
+            storage = other.storage;
+            values = null;
+        }
+
+        int size = primitiveSize + other.primitiveSize;
+        if (storage == LONGS) {
+            longs = longs == null ? new long[Math.max(size, DEFAULT_CAPACITY)] : longs.length < size ? Arrays.copyOf(longs, size) : longs;
+            System.arraycopy(other.longs, 0, longs, primitiveSize, other.primitiveSize);
+        } else {
+            doubles = doubles == null ? new double[Math.max(size, DEFAULT_CAPACITY)] : doubles.length < size ? Arrays.copyOf(doubles, size) : doubles;
+            System.arraycopy(other.doubles, 0, doubles, primitiveSize, other.primitiveSize);
+        }
+        primitiveSize = size;
+    }
+
+    /**
+     * 转换为 {@code List<JsonValue>} 存储
+     */
+    private void inflate() {
+        if (storage == GENERAL) {
+            return;
+        }
+
+        values = materialize();
+        storage = GENERAL;
+        longs = null;
+        doubles = null;
+        primitiveSize = 0;
+    }
+
+    private List<JsonValue> materialize() {
+        List<JsonValue> list = new ArrayList<>(Math.max(primitiveSize, DEFAULT_CAPACITY));
+        for (int i = 0; i < primitiveSize; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    private int newCapacity() {
+        return primitiveSize + (primitiveSize >> 1) + 1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= primitiveSize) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + primitiveSize);
+        }
+    }
+
+    private int indexOfPrimitive(Object o) {
+        if (!(o instanceof JsonPrimitive) || !((JsonPrimitive) o).isNumber()) {
+            return -1;
+        }
+
+        //与 JsonPrimitive#equals 保持一致，只有相同类型的 Number 才相等
+        Number number = ((JsonPrimitive) o).getAsNumber();
+        for (int i = 0; i < primitiveSize; i++) {
+            if (storage == LONGS && number instanceof Long && longs[i] == number.longValue()) {
+                return i;
+            } else if (storage == DOUBLES && number.equals(doubles[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removePrimitive(int index) {
+        int moved = primitiveSize - index - 1;
+        if (storage == LONGS) {
+            System.arraycopy(longs, index + 1, longs, index, moved);
+        } else {
+            System.arraycopy(doubles, index + 1, doubles, index, moved);
+        }
+        primitiveSize--;
+    }
+
+    /**
+     * 遍历 {@code longs} 或 {@code doubles} 的迭代器，按需创建 {@code JsonPrimitive}
+     */
+    private class PrimitiveIterator implements Iterator<JsonValue> {
+
+        private final int expectedStorage = storage;
+
+        private int cursor;
+
+        private int lastReturned = -1;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < primitiveSize;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (storage != expectedStorage) {
+                throw new ConcurrentModificationException();
+            }
+            if (cursor >= primitiveSize) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturned = cursor++;
+            return get(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (storage != expectedStorage) {
+                throw new ConcurrentModificationException();
+            }
+
+            removePrimitive(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
     }
 }
@@ -12,4 +12,11 @@ public class JsonException extends RuntimeException {
     public JsonException(String msg, Throwable t) {
         super(msg, t);
     }
+
+    /**
+     * @param writableStackTrace 为 {@code false} 时不记录调用栈，用于频繁出现、只需要错误信息的场景
+     */
+    public JsonException(String msg, boolean writableStackTrace) {
+        super(msg, null, false, writableStackTrace);
+    }
 }
@@ -7,6 +7,13 @@ package cn.zcn.json.ast;
  */
 public class JsonListener {
 
+    /**
+     * 清空解析状态，之后可以使用同一个 listener 读取新的 JSON。reader 在 reset 时会调用该方法。
+     */
+    public void reset() {
+
+    }
+
     /**
      * 开始解析 Literal {@code null}
      */
@@ -53,6 +60,26 @@ public class JsonListener {
 
     }
 
+    /**
+     * 解析 Literal {@code Number} 结束，该数字是一个可以用 {@code long} 表示的整数。
+     * 默认将数字转换为文本并调用 {@link #endNumber(String)}。
+     *
+     * @param number 完成解析获得的 {@code long}
+     */
+    public void endLong(long number) {
+        endNumber(Long.toString(number));
+    }
+
+    /**
+     * 解析 Literal {@code Number} 结束，该数字是一个可以精确转换为 {@code double} 的小数。
+     * 默认将数字转换为文本并调用 {@link #endNumber(String)}。
+     *
+     * @param number 完成解析获得的 {@code double}
+     */
+    public void endDouble(double number) {
+        endNumber(Double.toString(number));
+    }
+
     /**
      * 开始解析 Literal {@code String}
      */
@@ -99,6 +126,16 @@ public class JsonListener {
 
     }
 
+    /**
+     * 在读取 member value 之前调用，返回 {@code true} 时 reader 会直接跳过该 member value，
+     * 不会通知 listener，也不会创建 {@code String}、{@code JsonValue}。
+     *
+     * @param container member value 是否是 JSON Object 或 JSON Array
+     */
+    public boolean skipObjectValue(boolean container) {
+        return false;
+    }
+
     /**
      * 开始解析 member value
      */
@@ -127,6 +164,16 @@ public class JsonListener {
 
     }
 
+    /**
+     * 在读取 element value 之前调用，返回 {@code true} 时 reader 会直接跳过该 element value，
+     * 不会通知 listener，也不会创建 {@code String}、{@code JsonValue}。
+     *
+     * @param container element value 是否是 JSON Object 或 JSON Array
+     */
+    public boolean skipArrayElement(boolean container) {
+        return false;
+    }
+
     /**
      * 开始解析 element value
      */
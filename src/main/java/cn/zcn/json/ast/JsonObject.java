@@ -1,21 +1,62 @@
 package cn.zcn.json.ast;
 
-import cn.zcn.json.Json;
-
 import java.util.*;
 
 /**
  * 用于表示 JSON Object 的类
+ * <p>
+ * JSON member 按插入顺序存储在 {@code names}、{@code values} 两个数组中，member 较少时直接线性查找。
+ * member 数量超过 {@link #HASH_THRESHOLD} 后，额外创建一个开放寻址的散列索引 {@code table}。
+ * <p>
+ * 通过 {@link #JsonObject(Shape)} 创建的 JSON Object 在追加 member 时沿着 {@link Shape} 的转移树前进，
+ * 相同 name 序列的 JSON Object 共享同一个 {@code names} 以及 {@code table}，只存储各自的 {@code values}。
+ * 移除 member 或者 Shape 达到上限时复制一份独立的 {@code names}。
  *
  * @author zicung
  */
 public class JsonObject extends JsonValue {
 
-    private final Map<String, JsonValue> values = new LinkedHashMap<>();
+    /**
+     * member 数量超过该值后使用散列索引查找
+     */
+    static final int HASH_THRESHOLD = 8;
+
+    private static final String[] EMPTY_NAMES = {};
+
+    private static final JsonValue[] EMPTY_VALUES = {};
+
+    private String[] names = EMPTY_NAMES;
+
+    private JsonValue[] values = EMPTY_VALUES;
+
+    private int size;
+
+    /**
+     * 散列索引，存储 member 在 {@code names} 中的下标加一，{@code 0} 表示空槽。长度为 2 的幂，至少是 {@code size} 的两倍
+     */
+    private int[] table;
+
+    /**
+     * 共享的 name 序列，为 {@code null} 时 {@code names}、{@code table} 属于当前 JSON Object
+     */
+    private Shape shape;
 
     public JsonObject() {
     }
 
+    /**
+     * 创建一个与 {@code root} 所在转移树中的其它 JSON Object 共享 name 序列的 JSON Object
+     *
+     * @param root {@link Shape#root()} 创建的根节点
+     */
+    public JsonObject(Shape root) {
+        if (root.names.length != 0) {
+            throw new IllegalArgumentException("Shape must be a root.");
+        }
+        this.shape = root;
+        this.names = root.names;
+    }
+
     @Override
     public boolean isObject() {
         return true;
@@ -33,27 +74,33 @@ public class JsonObject extends JsonValue {
      * @param value value
      */
     public void set(String name, JsonValue value) {
-        values.put(name, value);
+        load();
+        put(name, value);
     }
 
     public void set(String name, String value) {
-        values.put(name, new JsonPrimitive(value));
+        load();
+        put(name, JsonPrimitive.valueOf(value));
     }
 
     public void set(String name, boolean value) {
-        values.put(name, value ? JsonPrimitive.TRUE : JsonPrimitive.FALSE);
+        load();
+        put(name, value ? JsonPrimitive.TRUE : JsonPrimitive.FALSE);
     }
 
     public void set(String name, int value) {
-        values.put(name, new JsonPrimitive(value));
+        load();
+        put(name, JsonPrimitive.valueOf(value));
     }
 
     public void set(String name, float value) {
-        values.put(name, new JsonPrimitive(value));
+        load();
+        put(name, new JsonPrimitive(value));
     }
 
     public void set(String name, double value) {
-        values.put(name, new JsonPrimitive(value));
+        load();
+        put(name, JsonPrimitive.valueOf(value));
     }
 
     /**
@@ -62,7 +109,9 @@ public class JsonObject extends JsonValue {
      * @param name name
      */
     public JsonValue get(String name) {
-        return values.get(name);
+        load();
+        int i = indexOf(name);
+        return i < 0 ? null : values[i];
     }
 
     /**
@@ -71,7 +120,7 @@ public class JsonObject extends JsonValue {
      * @param name name
      */
     public JsonObject getAsObject(String name) {
-        return (JsonObject) values.get(name);
+        return (JsonObject) get(name);
     }
 
     /**
@@ -80,7 +129,7 @@ public class JsonObject extends JsonValue {
      * @param name name
      */
     public JsonArray getAsArray(String name) {
-        return (JsonArray) values.get(name);
+        return (JsonArray) get(name);
     }
 
     /**
@@ -89,7 +138,7 @@ public class JsonObject extends JsonValue {
      * @param name name
      */
     public JsonPrimitive getAsPrimitive(String name) {
-        return (JsonPrimitive) values.get(name);
+        return (JsonPrimitive) get(name);
     }
 
     /**
@@ -99,7 +148,15 @@ public class JsonObject extends JsonValue {
      * @return 被移除的 JSON member
      */
     public JsonValue remove(String name) {
-        return values.remove(name);
+        load();
+        int i = indexOf(name);
+        if (i < 0) {
+            return null;
+        }
+
+        JsonValue old = values[i];
+        removeAt(i);
+        return old;
     }
 
     /**
@@ -109,7 +166,8 @@ public class JsonObject extends JsonValue {
      * @return 存在指定 {@code name} 的 JSON member，返回 {@code true}
      */
     public boolean has(String name) {
-        return values.containsKey(name);
+        load();
+        return indexOf(name) >= 0;
     }
 
     /**
@@ -118,7 +176,8 @@ public class JsonObject extends JsonValue {
      * @return JSON member size
      */
     public int size() {
-        return values.size();
+        load();
+        return size;
     }
 
     /**
@@ -127,24 +186,305 @@ public class JsonObject extends JsonValue {
      * @return JSON member 的数量是否为零返回 {@code true}
      */
     public boolean isEmpty() {
-        return values.isEmpty();
+        load();
+        return size == 0;
     }
 
+    /**
+     * 按插入顺序返回全部 member name，返回的集合是 JSON Object 的视图，支持通过迭代器移除 JSON member。
+     */
     public Set<String> keySet() {
-        return values.keySet();
+        load();
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new MemberIterator<String>() {
+                    @Override
+                    String current(int i) {
+                        return names[i];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && indexOf((String) o) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
+    /**
+     * 按插入顺序返回全部 JSON member，返回的集合是 JSON Object 的视图，支持通过迭代器移除 JSON member 以及通过
+     * {@link Map.Entry#setValue(Object)} 修改 member value。
+     */
     public Set<Map.Entry<String, JsonValue>> entrySet() {
-        return values.entrySet();
+        load();
+        return new AbstractSet<Map.Entry<String, JsonValue>>() {
+            @Override
+            public Iterator<Map.Entry<String, JsonValue>> iterator() {
+                return new MemberIterator<Map.Entry<String, JsonValue>>() {
+                    @Override
+                    Map.Entry<String, JsonValue> current(int i) {
+                        return new Member(i);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 在访问 JSON member 之前调用。延迟解析的子类在此时加载全部 JSON member，之后的所有操作都作用于已加载的 JSON member。
+     */
+    protected void load() {
+
+    }
+
+    /**
+     * 设置一个 JSON member，不会调用 {@link #load()}。供延迟解析的子类在 {@link #load()} 中填充 JSON member。
+     *
+     * @param name  name
+     * @param value value
+     */
+    protected final void put(String name, JsonValue value) {
+        if (shape != null) {
+            //转移树中已有的子节点的 name 一定不在当前 name 序列中，不需要再检查重复的 name
+            Shape next = shape.find(name);
+            if (next == null) {
+                int i = indexOf(name);
+                if (i >= 0) {
+                    values[i] = value;
+                    return;
+                }
+                next = shape.transition(name);
+            }
+
+            if (next != null) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size == 0 ? 4 : size + (size >> 1));
+                }
+                values[size++] = value;
+                shape = next;
+                names = next.names;
+                table = next.table;
+                return;
+            }
+            unshare();
+        }
+
+        int i = indexOf(name);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+
+        if (size == names.length) {
+            int capacity = Math.max(values.length, size == 0 ? 4 : size + (size >> 1));
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+
+        if (table != null && size * 2 <= table.length) {
+            insert(table, name, size);
+        } else if (size > HASH_THRESHOLD) {
+            rehash();
+        }
+    }
+
+    private int indexOf(String name) {
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int mask = table.length - 1;
+        for (int slot = hash(name) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int i = table[slot] - 1;
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int i) {
+        if (shape != null) {
+            unshare();
+        }
+
+        int moved = size - i - 1;
+        System.arraycopy(names, i + 1, names, i, moved);
+        System.arraycopy(values, i + 1, values, i, moved);
+        size--;
+        names[size] = null;
+        values[size] = null;
+
+        //删除后其后 member 的下标都发生了变化，直接重建散列索引
+        if (table != null) {
+            if (size > HASH_THRESHOLD) {
+                rehash();
+            } else {
+                table = null;
+            }
+        }
+    }
+
+    /**
+     * 复制一份独立的 {@code names}、{@code table}，不再共享 Shape
+     */
+    private void unshare() {
+        names = Arrays.copyOf(names, values.length);
+        if (table != null) {
+            table = table.clone();
+        }
+        shape = null;
+    }
+
+    Shape shape() {
+        return shape;
+    }
+
+    private void rehash() {
+        table = buildTable(names, size);
+    }
+
+    static int[] buildTable(String[] names, int size) {
+        int[] table = new int[Integer.highestOneBit(size * 4 - 1)];
+        for (int i = 0; i < size; i++) {
+            insert(table, names[i], i + 1);
+        }
+        return table;
+    }
+
+    private static void insert(int[] table, String name, int entry) {
+        int mask = table.length - 1;
+        int slot = hash(name) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 按插入顺序遍历 JSON member 的迭代器
+     */
+    private abstract class MemberIterator<E> implements Iterator<E> {
+
+        private int next;
+
+        private int last = -1;
+
+        abstract E current(int i);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public E next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return current(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    /**
+     * 指向 {@code names}、{@code values} 中一个下标的 JSON member
+     */
+    private final class Member implements Map.Entry<String, JsonValue> {
+
+        private final int index;
+
+        private Member(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return names[index];
+        }
+
+        @Override
+        public JsonValue getValue() {
+            return values[index];
+        }
+
+        @Override
+        public JsonValue setValue(JsonValue value) {
+            JsonValue old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
     }
 
     @Override
     public int hashCode() {
-        return values.hashCode();
+        load();
+
+        //与 Map#hashCode 保持一致，和 member 的顺序无关
+        int h = 0;
+        for (int i = 0; i < size; i++) {
+            h += names[i].hashCode() ^ Objects.hashCode(values[i]);
+        }
+        return h;
     }
 
     @Override
     public boolean equals(Object o) {
+        load();
         if (o == this) {
             return true;
         }
@@ -153,6 +493,18 @@ public class JsonObject extends JsonValue {
             return false;
         }
 
-        return ((JsonObject) o).values.equals(values);
+        JsonObject other = (JsonObject) o;
+        other.load();
+        if (other.size != size) {
+            return false;
+        }
+
+        for (int i = 0; i < size; i++) {
+            int j = other.indexOf(names[i]);
+            if (j < 0 || !Objects.equals(values[i], other.values[j])) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -23,47 +23,65 @@ public class JsonPrimitive extends JsonValue {
     public static final JsonPrimitive FALSE = new JsonPrimitive(false);
 
     /**
-     * 标识 JSON Primitive 是否是一个 {@code Boolean}
+     * 空字符串
      */
-    private final boolean isBool;
+    private static final JsonPrimitive EMPTY_STRING = new JsonPrimitive("");
+
+    static final byte NULL_TYPE = 0;
+    static final byte BOOL_TYPE = 1;
+    static final byte STRING_TYPE = 2;
+    static final byte NUMBER_TYPE = 3;
 
     /**
-     * 标识 JSON Primitive 是否是一个 {@code String}
+     * 类型标识，{@link #NULL_TYPE}、{@link #BOOL_TYPE}、{@link #STRING_TYPE}、{@link #NUMBER_TYPE}
      */
-    private final boolean isString;
+    private final byte type;
 
     /**
-     * 标识 JSON Primitive 是否是一个 {@code Number}
+     * {@code Boolean}、{@code String} 或 {@code Number}。{@link LongPrimitive}、{@link DoublePrimitive} 直接存储数值，该字段为 {@code null}
      */
-    private final boolean isNumber;
-
-    private Object value;
+    private final Object value;
 
     private JsonPrimitive() {
-        this.isBool = false;
-        this.isString = false;
-        this.isNumber = false;
+        this(NULL_TYPE, null);
     }
 
     private JsonPrimitive(Boolean bool) {
-        this.isBool = true;
-        this.isString = false;
-        this.isNumber = false;
-        this.value = bool;
+        this(BOOL_TYPE, bool);
     }
 
     public JsonPrimitive(String string) {
-        this.isBool = false;
-        this.isString = true;
-        this.isNumber = false;
-        this.value = string;
+        this(STRING_TYPE, string);
     }
 
     public JsonPrimitive(Number number) {
-        this.isBool = false;
-        this.isString = false;
-        this.isNumber = true;
-        this.value = number;
+        this(NUMBER_TYPE, number);
+    }
+
+    JsonPrimitive(byte type, Object value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * 返回表示 {@code value} 的 JSON Primitive，数值直接存储为 {@code long}，较小的整数会返回缓存的实例
+     */
+    public static JsonPrimitive valueOf(long value) {
+        return LongPrimitive.of(value);
+    }
+
+    /**
+     * 返回表示 {@code value} 的 JSON Primitive，数值直接存储为 {@code double}
+     */
+    public static JsonPrimitive valueOf(double value) {
+        return new DoublePrimitive(value);
+    }
+
+    /**
+     * 返回表示 {@code value} 的 JSON Primitive，空字符串会返回缓存的实例
+     */
+    public static JsonPrimitive valueOf(String value) {
+        return value.isEmpty() ? EMPTY_STRING : new JsonPrimitive(value);
     }
 
     @Override
@@ -78,7 +96,7 @@ public class JsonPrimitive extends JsonValue {
 
     @Override
     public boolean isBool() {
-        return isBool;
+        return type == BOOL_TYPE;
     }
 
     @Override
@@ -93,12 +111,12 @@ public class JsonPrimitive extends JsonValue {
 
     @Override
     public boolean isNumber() {
-        return isNumber;
+        return type == NUMBER_TYPE;
     }
 
     @Override
     public boolean isString() {
-        return isString;
+        return type == STRING_TYPE;
     }
 
     @Override
@@ -169,18 +187,26 @@ public class JsonPrimitive extends JsonValue {
         return this;
     }
 
+    /**
+     * 用于比较的值，数值类型的子类返回装箱后的数值
+     */
+    Object value() {
+        return value;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == this) return true;
         if (!(o instanceof JsonPrimitive)) return false;
-        if (((JsonPrimitive) o).value == null || value == null)
-            return ((JsonPrimitive) o).value == null && value == null;
-        return value.equals(((JsonPrimitive) o).value);
+        JsonPrimitive other = (JsonPrimitive) o;
+        if (type != other.type) return false;
+        if (type == NULL_TYPE) return true;
+        return value().equals(other.value());
     }
 
     @Override
     public int hashCode() {
-        if (value == null) return 31;
-        return value.hashCode();
+        if (type == NULL_TYPE) return 31;
+        return value().hashCode();
     }
 }
@@ -1,15 +1,15 @@
 package cn.zcn.json.ast;
 
 /**
+ * 保留原始文本的数字，只在访问时才解析。
+ * <p>
+ * 只有超出 {@code long} 范围的整数，或者无法直接转换为 {@code double} 的小数才会使用该类，访问较少，因此不缓存解析结果，只保留原始文本。
+ *
  * @author zicung
  */
 public class LazyParsedNumber extends Number {
 
     private final String val;
-    private Integer integerVal;
-    private Long longVal;
-    private Float floatVal;
-    private Double doubleVal;
 
     public LazyParsedNumber(String val) {
         this.val = val;
@@ -17,38 +17,32 @@ public class LazyParsedNumber extends Number {
 
     @Override
     public int intValue() {
-        if (integerVal == null) {
-            integerVal = Integer.parseInt(val);
-        }
-
-        return integerVal;
+        return Integer.parseInt(val);
     }
 
     @Override
     public long longValue() {
-        if (longVal == null) {
-            longVal = Long.parseLong(val);
-        }
-
-        return longVal;
+        return Long.parseLong(val);
     }
 
     @Override
     public float floatValue() {
-        if (floatVal == null) {
-            floatVal = Float.parseFloat(val);
-        }
-
-        return floatVal;
+        return Float.parseFloat(val);
     }
 
     @Override
     public double doubleValue() {
-        if (doubleVal == null) {
-            doubleVal = Double.parseDouble(val);
-        }
+        return Double.parseDouble(val);
+    }
 
-        return doubleVal;
+    @Override
+    public boolean equals(Object o) {
+        return o == this || o instanceof LazyParsedNumber && val.equals(((LazyParsedNumber) o).val);
+    }
+
+    @Override
+    public int hashCode() {
+        return val.hashCode();
     }
 
     @Override
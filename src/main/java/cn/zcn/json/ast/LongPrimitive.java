@@ -0,0 +1,81 @@
+package cn.zcn.json.ast;
+
+/**
+ * 直接存储 {@code long} 的 JSON Primitive，不会创建 {@link Long}
+ *
+ * @author zicung
+ */
+final class LongPrimitive extends JsonPrimitive {
+
+    private static final int CACHE_LOW = -128;
+
+    private static final int CACHE_HIGH = 1023;
+
+    /**
+     * 较小整数的缓存，JSON Primitive 是不可变的，可以共享
+     */
+    private static final LongPrimitive[] CACHE = new LongPrimitive[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new LongPrimitive(i + CACHE_LOW);
+        }
+    }
+
+    private final long value;
+
+    private LongPrimitive(long value) {
+        super(NUMBER_TYPE, null);
+        this.value = value;
+    }
+
+    static LongPrimitive of(long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return CACHE[(int) value - CACHE_LOW];
+        }
+        return new LongPrimitive(value);
+    }
+
+    @Override
+    public Number getAsNumber() {
+        return value;
+    }
+
+    @Override
+    public Integer getAsInteger() {
+        return (int) value;
+    }
+
+    @Override
+    public Float getAsFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public Double getAsDouble() {
+        return (double) value;
+    }
+
+    @Override
+    public Short getAsShort() {
+        return (short) value;
+    }
+
+    @Override
+    Object value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof LongPrimitive) {
+            return ((LongPrimitive) o).value == value;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+}
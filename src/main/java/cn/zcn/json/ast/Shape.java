@@ -0,0 +1,124 @@
+package cn.zcn.json.ast;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JSON Object 的 member name 序列，相同顺序、相同 name 的 JSON Object 可以共享同一个 Shape，每个 JSON Object 只需要存储 member value。
+ * <p>
+ * Shape 是不可变的，以 {@link #root()} 为根组成一棵转移树：在 Shape 之后追加一个 name 得到它的一个子节点。
+ * 一棵树中 Shape 的数量、每个 Shape 的子节点数量以及 name 的数量都有上限，超过上限后 JSON Object 使用独立的存储。
+ *
+ * @author zicung
+ */
+public final class Shape {
+
+    /**
+     * 一棵转移树中 Shape 数量的上限
+     */
+    private static final int MAX_SHAPES = 1024;
+
+    /**
+     * 一个 Shape 子节点数量的上限，超过上限说明 member name 不固定（例如以 id 作为 name），不再共享
+     */
+    private static final int MAX_TRANSITIONS = 16;
+
+    /**
+     * 一个 Shape 中 name 数量的上限
+     */
+    private static final int MAX_NAMES = 64;
+
+    private static final Shape[] NO_TRANSITIONS = {};
+
+    final String[] names;
+
+    /**
+     * 与 {@link JsonObject} 相同的散列索引，name 的数量不超过 {@link JsonObject#HASH_THRESHOLD} 时为 {@code null}
+     */
+    final int[] table;
+
+    /**
+     * 整棵转移树中 Shape 的数量，树中的所有 Shape 共享同一个计数
+     */
+    private final AtomicInteger count;
+
+    private volatile Shape[] transitions = NO_TRANSITIONS;
+
+    private Shape(String[] names, AtomicInteger count) {
+        this.names = names;
+        this.count = count;
+        this.table = names.length > JsonObject.HASH_THRESHOLD ? JsonObject.buildTable(names, names.length) : null;
+    }
+
+    /**
+     * 创建一棵新的转移树，返回不包含任何 name 的根节点
+     */
+    public static Shape root() {
+        return new Shape(new String[0], new AtomicInteger(1));
+    }
+
+    /**
+     * 转移树中 Shape 的数量是否已经达到上限
+     */
+    public boolean isFull() {
+        return count.get() >= MAX_SHAPES;
+    }
+
+    /**
+     * 返回已经存在的、在当前 name 序列之后追加 {@code name} 得到的 Shape，不存在时返回 {@code null}
+     */
+    Shape find(String name) {
+        for (Shape shape : transitions) {
+            if (shape.names[names.length].equals(name)) {
+                return shape;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 返回在当前 name 序列之后追加 {@code name} 得到的 Shape，不存在时创建，达到上限时返回 {@code null}。
+     * 调用方需要保证 {@code name} 不在当前 name 序列中
+     */
+    Shape transition(String name) {
+        Shape[] current = transitions;
+        for (Shape shape : current) {
+            if (shape.names[names.length].equals(name)) {
+                return shape;
+            }
+        }
+
+        if (names.length >= MAX_NAMES) {
+            return null;
+        }
+
+        synchronized (this) {
+            //加锁之前可能已经被其它线程添加
+            if (transitions != current) {
+                for (Shape shape : transitions) {
+                    if (shape.names[names.length].equals(name)) {
+                        return shape;
+                    }
+                }
+            }
+
+            if (transitions.length >= MAX_TRANSITIONS) {
+                return null;
+            }
+
+            if (count.getAndIncrement() >= MAX_SHAPES) {
+                count.decrementAndGet();
+                return null;
+            }
+
+            String[] newNames = Arrays.copyOf(names, names.length + 1);
+            newNames[names.length] = name;
+            Shape shape = new Shape(newNames, count);
+
+            Shape[] newTransitions = Arrays.copyOf(transitions, transitions.length + 1);
+            newTransitions[transitions.length] = shape;
+            transitions = newTransitions;
+            return shape;
+        }
+    }
+}
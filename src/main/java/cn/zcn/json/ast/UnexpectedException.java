@@ -2,8 +2,12 @@ package cn.zcn.json.ast;
 
 public class UnexpectedException extends JsonException {
     public UnexpectedException(char expected, int actual, int line, int column) {
+        this(expected, actual, line, column, true);
+    }
+
+    public UnexpectedException(char expected, int actual, int line, int column, boolean writableStackTrace) {
         super("Expected \"" + expected +
                 "\" but got " + (actual == -1 ? "\"EOF\"" : (char) actual) +
-                ". Line: " + line + ", Column: " + column);
+                ". Line: " + line + ", Column: " + column, writableStackTrace);
     }
 }
\ No newline at end of file
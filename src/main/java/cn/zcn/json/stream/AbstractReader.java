@@ -1,13 +1,16 @@
 package cn.zcn.json.stream;
 
+import cn.zcn.json.ast.JsonException;
 import cn.zcn.json.ast.JsonListener;
 import cn.zcn.json.ast.UnexpectedException;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import static cn.zcn.json.ast.JsonCharacters.*;
-import static cn.zcn.json.ast.JsonCharacters.TAB;
 
 /**
  * Abstract reader
@@ -17,82 +20,151 @@ import static cn.zcn.json.ast.JsonCharacters.TAB;
 public class AbstractReader {
 
     /**
-     * Json content stream
+     * Json content source
      */
-    private final Reader reader;
+    JsonSource source;
 
     protected final JsonListener listener;
 
     /**
-     * 字符缓存，用于缓存从 {@code Reader} 读取的 chars
+     * 当前读取的 char
      */
-    protected final char[] readBuffer = new char[512];
+    protected int current = 0;
 
     /**
-     * 下一个将要读取的 char 的索引位置
+     * 不会被调用的 listener，用于不经过 listener 的 reader
      */
-    protected int nextPos = 0;
+    static final JsonListener NO_LISTENER = new JsonListener();
 
     /**
-     * {@code readBuffer} 缓存的字符数量
+     * {@link #scanNumber()} 返回的结果类型
      */
-    protected int fill = 0;
+    static final int LONG_NUMBER = NumberScanner.LONG_NUMBER;
+    static final int DOUBLE_NUMBER = NumberScanner.DOUBLE_NUMBER;
+    static final int TEXT_NUMBER = NumberScanner.TEXT_NUMBER;
 
     /**
-     * Json Value buffer。当在读取 Json Value 时读取到了 {@code readBuffer} 的尾部时，当前 Json Value 尚未读取完成时，将内容缓存到 {@code valueBuffer}
+     * {@link #scanNumber()} 的结果
      */
-    protected StringBuilder valueBuffer;
+    long longValue;
+    double doubleValue;
+    String textValue;
 
     /**
-     * 标识当前读取的 Json Value 的开始索引
+     * 在 {@link #current} 上读取 Number
      */
-    protected int valueStartPos = -1;
+    private final NumberScanner numbers = new NumberScanner() {
+        @Override
+        int current() {
+            return current;
+        }
+
+        @Override
+        void next() {
+            try {
+                readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        JsonException leadingZero() {
+            return new JsonException("Leading zeros are not allowed. Line: " + line() + ", Column: " + column());
+        }
+
+        @Override
+        JsonException expectedDigit() {
+            return new JsonException("Expected digit but got: " + describeCurrent() +
+                    ". Line: " + line() + ", Column: " + column());
+        }
+    };
 
     /**
-     * 当前读取的 char
+     * 跳过 JSON Object、JSON Array 时使用的嵌套栈，第一次跳过时创建
      */
-    protected int current = 0;
+    private ContainerStack skipped;
+
+    public AbstractReader(Reader reader, JsonListener listener) {
+        this(new ReaderSource(reader), listener);
+    }
 
     /**
-     * 当前解析到的 JSON 的行数
+     * 直接解析 UTF-8 编码的 {@code byte[]}，仅在读取 string 和 member name 时才解码为 {@code String}
      */
-    protected int line = 1;
+    public AbstractReader(byte[] json, JsonListener listener) {
+        this(new Utf8Source(json), listener);
+    }
 
     /**
-     * 当前解析行的列数
+     * 解析 UTF-8 编码的 {@link ByteBuffer}，支持 direct buffer。读取范围为 buffer 的 position 至 limit，不会修改 buffer 的 position。
      */
-    protected int column = 0;
+    public AbstractReader(ByteBuffer json, JsonListener listener) {
+        this(new ByteBufferSource(json), listener);
+    }
 
-    public AbstractReader(Reader reader, JsonListener listener) {
-        this.reader = reader;
+    /**
+     * 解析 UTF-8 编码的文件。文件按窗口依次映射到内存中读取，不会将整个文件加载到堆中。
+     */
+    public AbstractReader(FileChannel json, JsonListener listener) throws IOException {
+        this(new FileChannelSource(json), listener);
+    }
+
+    AbstractReader(JsonSource source, JsonListener listener) {
+        this.source = source;
         this.listener = listener;
     }
 
-    protected void readNext() throws IOException {
-        if (nextPos == fill) {
-            if (valueStartPos != -1) {
-                valueBuffer.append(readBuffer, valueStartPos, fill - valueStartPos);
-                valueStartPos = 0;
-            }
+    /**
+     * 重置 reader 和 listener，从 {@code reader} 开始读取新的 JSON。已有的字符缓存会被复用。
+     */
+    public void reset(Reader reader) {
+        if (source instanceof ReaderSource) {
+            ((ReaderSource) source).reset(reader);
+        } else {
+            source = new ReaderSource(reader);
+        }
+        reset();
+    }
 
-            //读取字符到缓存中
-            fill = reader.read(readBuffer, 0, readBuffer.length);
-            nextPos = 0;
+    /**
+     * 重置 reader 和 listener，从 UTF-8 编码的 {@code json} 开始读取新的 JSON。
+     */
+    public void reset(byte[] json) {
+        reset(json, 0, json.length);
+    }
 
-            if (fill == -1) {
-                current = -1;
-                nextPos++;
-                return;
-            }
-        }
+    /**
+     * 重置 reader 和 listener，从 UTF-8 编码的 {@link ByteBuffer} 开始读取新的 JSON。
+     */
+    public void reset(ByteBuffer json) {
+        source = new ByteBufferSource(json);
+        reset();
+    }
 
-        current = readBuffer[nextPos++];
-        column++;
+    void reset(byte[] json, int offset, int length) {
+        if (source instanceof Utf8Source) {
+            ((Utf8Source) source).reset(json, offset, length);
+        } else {
+            source = new Utf8Source(json, offset, length);
+        }
+        reset();
+    }
 
-        if (current == NEW_LINE) {
-            line++;
-            column = 0;
+    /**
+     * 清空读取状态，子类需要同时清空自己的状态
+     */
+    protected void reset() {
+        current = 0;
+        textValue = null;
+        if (skipped != null) {
+            skipped.clear();
         }
+        listener.reset();
+    }
+
+    protected void readNext() throws IOException {
+        current = source.read();
     }
 
     protected void readFalseInternal() throws IOException {
@@ -123,28 +195,192 @@ public class AbstractReader {
         listener.endBool(true);
     }
 
+    /**
+     * 读取 Number 并通知 listener，见 {@link #scanNumber()}。
+     * 只有当尾数超出 {@code long} 的范围，或者无法转换为有限的 {@code double} 时，才使用文本并调用 {@link JsonListener#endNumber(String)}。
+     */
     protected void readNumberInternal() throws IOException {
-        openValueBuffer();
         listener.startNumber();
+        switch (scanNumber()) {
+            case LONG_NUMBER:
+                listener.endLong(longValue);
+                break;
+            case DOUBLE_NUMBER:
+                listener.endDouble(doubleValue);
+                break;
+            default:
+                listener.endNumber(textValue);
+        }
+    }
+
+    /**
+     * 读取 Number，见 {@link NumberScanner}，返回结果的类型，结果存储在 {@link #longValue}、{@link #doubleValue} 或 {@link #textValue} 中。
+     */
+    int scanNumber() throws IOException {
+        openValueBuffer();
+        int type = scanNumberGrammar();
+        switch (type) {
+            case LONG_NUMBER:
+                discardValueBuffer();
+                longValue = numbers.longValue;
+                break;
+            case DOUBLE_NUMBER:
+                discardValueBuffer();
+                doubleValue = numbers.doubleValue;
+                break;
+            default:
+                textValue = closeValueBuffer();
+        }
+        return type;
+    }
 
-        //TODO 处理 "e"、"E"等数字
-        while (current >= '0' && current <= '9') {
-            readNext();
+    /**
+     * 通过 {@link #numbers} 按 Number 的语法读取，不会打开 value buffer
+     */
+    private int scanNumberGrammar() throws IOException {
+        try {
+            return numbers.scan();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        listener.endNumber(closeValueBuffer());
     }
 
+    /**
+     * 读取 Literal {@code String} 并处理转义字符。调用前 {@code current} 是开头的引号，读取完成后 {@code current} 是结尾的引号。
+     */
     protected void readStringInternal() throws IOException {
+        listener.startString();
+        String val = source.readString();
+        current = JSON_QUOTATION_MARK;
+        listener.endString(val);
+    }
+
+    /**
+     * 读取 member name，重复出现的 member name 会返回同一个 {@code String} 实例。
+     * 调用前 {@code current} 是开头的引号，读取完成后 {@code current} 是结尾的引号。
+     */
+    protected String readNameInternal() throws IOException {
+        String name = source.readName();
+        current = JSON_QUOTATION_MARK;
+        return name;
+    }
+
+    /**
+     * 跳过 Literal {@code String}，不会通知 listener，也不会创建 {@code String}。读取完成后 {@code current} 是结尾的引号。
+     */
+    protected void skipStringInternal() throws IOException {
+        source.skipString();
+        current = JSON_QUOTATION_MARK;
+    }
+
+    /**
+     * 跳过一个完整的 Json Value，不会通知 listener，也不会创建 {@code String}、{@code JsonValue}。
+     * 调用前 {@code current} 是 value 的第一个字符，跳过后 {@code current} 是 value 之后的第一个字符。
+     * <p>
+     * 跳过的内容与 {@link JsonValidator} 使用相同的语法校验，不合法时抛出 {@link JsonException}。
+     */
+    protected void skipValueInternal() throws IOException {
+        switch (current) {
+            case JSON_QUOTATION_MARK:
+                skipStringInternal();
+                readNext();
+                break;
+            case JSON_OBJECT_BEGIN:
+            case JSON_ARRAY_BEGIN:
+                skipContainerInternal();
+                break;
+            case 't':
+                skipLiteral("true");
+                break;
+            case 'f':
+                skipLiteral("false");
+                break;
+            case 'n':
+                skipLiteral("null");
+                break;
+            default:
+                if (!isDigit() && current != '-') {
+                    throw new JsonException("Unsupported json value prefix: " + describeCurrent() +
+                            ". Line: " + line() + ", Column: " + column());
+                }
+
+                //跳过的 Number 同样需要符合语法，结果直接丢弃
+                scanNumberGrammar();
+        }
+    }
+
+    /**
+     * 跳过一个 JSON Object 或 JSON Array 并校验其中的语法。调用前 {@code current} 是开头的 '{'、'['，
+     * 嵌套的容器只记录在 {@link #skipped} 中，每一层只占 1 bit。
+     */
+    private void skipContainerInternal() throws IOException {
+        if (skipped == null) {
+            skipped = new ContainerStack();
+        }
+
+        skipped.clear();
+        skipped.push(current == JSON_OBJECT_BEGIN);
         readNext();
 
-        openValueBuffer();
-        listener.startString();
+        //first：刚读取 '{'、'['，可以直接结束；expectValue：期待一个 member 或 element
+        boolean first = true;
+        boolean expectValue = true;
+        while (true) {
+            skipWhiteSpace();
+            boolean isObject = skipped.isObject();
+            if ((first || !expectValue) && current == (isObject ? JSON_OBJECT_END : JSON_ARRAY_END)) {
+                skipped.pop();
+                readNext();
+                if (skipped.isEmpty()) {
+                    skipWhiteSpace();
+                    return;
+                }
+                first = false;
+                expectValue = false;
+                continue;
+            }
 
-        //TODO 处理 "\"、"unicode"
-        while (current != JSON_QUOTATION_MARK && current != -1) {
-            readNext();
+            if (!expectValue) {
+                if (current != JSON_VALUE_SEPARATOR) {
+                    throw unexpectedInSkipped(isObject ? "\",\" , \"}\"" : "\",\" , \"]\"");
+                }
+                readNext();
+                skipWhiteSpace();
+            }
+
+            if (isObject) {
+                if (current != JSON_QUOTATION_MARK) {
+                    throw unexpectedInSkipped("\"Pair Name\"");
+                }
+                skipStringInternal();
+                readNext();
+                skipWhiteSpace();
+                isEqualsOrThrow(JSON_NAME_SEPARATOR);
+                skipWhiteSpace();
+            }
+
+            if (current == JSON_OBJECT_BEGIN || current == JSON_ARRAY_BEGIN) {
+                skipped.push(current == JSON_OBJECT_BEGIN);
+                readNext();
+                first = true;
+                expectValue = true;
+            } else {
+                skipValueInternal();
+                first = false;
+                expectValue = false;
+            }
+        }
+    }
+
+    private JsonException unexpectedInSkipped(String expected) {
+        return new JsonException("Expected: " + expected + " but got: " + describeCurrent() +
+                ". Line: " + line() + ", Column: " + column());
+    }
+
+    void skipLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            isEqualsOrThrow(literal.charAt(i));
         }
-        listener.endString(closeValueBuffer());
     }
 
     /**
@@ -153,42 +389,47 @@ public class AbstractReader {
      */
     protected void isEqualsOrThrow(char expected) throws IOException {
         if (current != expected) {
-            throw new UnexpectedException(expected, current, line, column);
+            throw new UnexpectedException(expected, current, line(), column());
         }
 
         readNext();
     }
 
     protected void skipWhiteSpace() throws IOException {
-        while (isWhitespace()) {
-            readNext();
+        if (isWhitespace()) {
+            current = source.skipWhiteSpace();
         }
     }
 
+    protected boolean isDigit() {
+        return current >= '0' && current <= '9';
+    }
+
     protected boolean isWhitespace() {
         return current == WHITE_SPACE || current == NEW_LINE || current == LINE_FEED || current == TAB;
     }
 
     protected void openValueBuffer() {
-        if (valueBuffer == null) {
-            valueBuffer = new StringBuilder();
-        }
-
-        valueStartPos = nextPos - 1;
+        source.openValue();
     }
 
     protected String closeValueBuffer() {
-        if (valueBuffer.length() > 0) {
-            valueBuffer.append(readBuffer, valueStartPos, nextPos - valueStartPos - 1);
+        return source.closeValue();
+    }
 
-            String value = valueBuffer.toString();
-            valueBuffer.setLength(0);
-            valueStartPos = -1;
-            return value;
-        }
+    protected void discardValueBuffer() {
+        source.discardValue();
+    }
+
+    protected String describeCurrent() {
+        return current == -1 ? "\"EOF\"" : "\"" + (char) current + "\"";
+    }
+
+    protected int line() {
+        return source.line();
+    }
 
-        String val = new String(readBuffer, valueStartPos, nextPos - valueStartPos - 1);
-        valueStartPos = -1;
-        return val;
+    protected int column() {
+        return source.column();
     }
 }
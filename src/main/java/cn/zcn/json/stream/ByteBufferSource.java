@@ -0,0 +1,386 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static cn.zcn.json.ast.JsonCharacters.JSON_QUOTATION_MARK;
+import static cn.zcn.json.ast.JsonCharacters.NEW_LINE;
+
+/**
+ * 读取 UTF-8 编码的 {@link ByteBuffer} 的输入源，支持 heap buffer 与 direct buffer。
+ * <p>
+ * 输入可以由多个窗口组成，当前窗口读取完毕后通过 {@link #nextWindow()} 加载下一个窗口。
+ * 读取过程只使用绝对位置访问，不会修改 buffer 的 position。跳过空白字符与扫描 string 时每次比较 8 个字节，见 {@link Swar}。
+ *
+ * @author zicung
+ */
+class ByteBufferSource extends JsonSource {
+
+    /**
+     * 当前读取的窗口
+     */
+    private ByteBuffer window;
+
+    /**
+     * 当前窗口的副本，字节顺序为 little-endian，用于批量拷贝字节以及按 {@code long} 读取
+     */
+    private ByteBuffer view;
+
+    /**
+     * 当前窗口的开始索引
+     */
+    private int start;
+
+    /**
+     * 下一个将要读取的 byte 的索引位置
+     */
+    private int nextPos;
+
+    /**
+     * 当前窗口的结束索引（不包括）
+     */
+    private int limit;
+
+    /**
+     * 标识当前读取的 Json Value 的开始索引
+     */
+    private int valueStartPos = -1;
+
+    /**
+     * Json Value buffer。当 Json Value 跨越窗口，或者需要从 direct buffer 中拷贝字节时使用
+     */
+    private byte[] valueBuffer;
+
+    /**
+     * {@code valueBuffer} 中已缓存的、属于当前 Json Value 的字节数量
+     */
+    private int valueLength = 0;
+
+    /**
+     * 当前窗口的开始位置在整个输入中的偏移量，即之前所有窗口的字节数
+     */
+    private long base = 0;
+
+    /**
+     * 已经通过 {@link #count(ByteBuffer, int, int)} 统计过的输入所占的行数（从 1 开始）
+     */
+    private int lineBase = 1;
+
+    /**
+     * 已经通过 {@link #count(ByteBuffer, int, int)} 统计过的输入在最后一行所占的列数
+     */
+    private int columnBase = 0;
+
+    ByteBufferSource(ByteBuffer buffer) {
+        setWindow(buffer);
+    }
+
+    /**
+     * 加载下一个窗口。
+     *
+     * @return 下一个窗口，没有更多内容时返回 {@code null}
+     */
+    ByteBuffer nextWindow() throws IOException {
+        return null;
+    }
+
+    /**
+     * 出错时统计当前窗口之前的所有输入的行数与列数，通过 {@link #count(ByteBuffer, int, int)} 累加。
+     * 只有一个窗口时当前窗口之前没有内容；覆盖了 {@link #nextWindow()} 的子类需要重新读取之前的窗口，见 {@link FileChannelSource}。
+     *
+     * @param base 当前窗口的开始位置在整个输入中的偏移量，大于 0
+     */
+    void countWindowsBefore(long base) throws IOException {
+
+    }
+
+    @Override
+    int read() throws IOException {
+        if (nextPos >= limit && !advance()) {
+            nextPos = limit + 1;
+            return -1;
+        }
+
+        return window.get(nextPos++) & 0xFF;
+    }
+
+    @Override
+    int skipWhiteSpace() throws IOException {
+        for (; ; ) {
+            int pos = nextPos;
+            while (pos + 8 <= limit) {
+                long mask = Swar.nonWhitespace(view.getLong(pos));
+                if (mask != 0) {
+                    nextPos = pos + Swar.firstByte(mask);
+                    return read();
+                }
+                pos += 8;
+            }
+
+            while (pos < limit && isWhitespace(window.get(pos))) {
+                pos++;
+            }
+
+            nextPos = pos;
+            if (pos < limit || !advance()) {
+                return read();
+            }
+        }
+    }
+
+    @Override
+    String readString() throws IOException {
+        int begin = nextPos;
+        int end = scanString(begin);
+        if (end < limit && window.get(end) == JSON_QUOTATION_MARK) {
+            nextPos = end + 1;
+            if (window.hasArray()) {
+                return new String(window.array(), window.arrayOffset() + begin, end - begin, StandardCharsets.UTF_8);
+            }
+
+            copyToValueBuffer(begin, end);
+            String val = new String(valueBuffer, 0, valueLength, StandardCharsets.UTF_8);
+            valueLength = 0;
+            return val;
+        }
+
+        toPending(begin, end);
+        return readUtf8Remaining();
+    }
+
+    @Override
+    String readName() throws IOException {
+        int begin = nextPos;
+        int end = scanString(begin);
+        if (end < limit && window.get(end) == JSON_QUOTATION_MARK) {
+            nextPos = end + 1;
+            if (window.hasArray()) {
+                return names.intern(window.array(), window.arrayOffset() + begin, end - begin);
+            }
+
+            copyToValueBuffer(begin, end);
+            String name = names.intern(valueBuffer, 0, valueLength);
+            valueLength = 0;
+            return name;
+        }
+
+        toPending(begin, end);
+        return names.intern(readUtf8Remaining());
+    }
+
+    @Override
+    void skipString() throws IOException {
+        int pos = nextPos;
+        while ((pos = scanString(pos)) < limit) {
+            int b = window.get(pos);
+            if (b == JSON_QUOTATION_MARK) {
+                nextPos = pos + 1;
+                return;
+            } else if (b == '\\') {
+                //转义字符可能跨越窗口，通过 read() 读取
+                nextPos = pos + 1;
+                readEscape();
+                pos = nextPos;
+            } else {
+                nextPos = pos + 1;
+                throw invalidStringCharacter(b);
+            }
+        }
+
+        //跨越窗口
+        nextPos = pos;
+        skipRemaining();
+    }
+
+    /**
+     * 从 {@code pos} 开始查找当前窗口中第一个引号、反斜杠或者控制字符。
+     *
+     * @return 该字符的索引，没有找到时返回 {@code limit}
+     */
+    private int scanString(int pos) {
+        while (pos + 8 <= limit) {
+            long mask = Swar.stringSpecial(view.getLong(pos));
+            if (mask != 0) {
+                return pos + Swar.firstByte(mask);
+            }
+            pos += 8;
+        }
+
+        while (pos < limit) {
+            int b = window.get(pos) & 0xFF;
+            if (b == JSON_QUOTATION_MARK || b == '\\' || b < 0x20) {
+                return pos;
+            }
+            pos++;
+        }
+
+        return limit;
+    }
+
+    /**
+     * 将当前窗口中 [begin, end) 的字节交给慢速路径
+     */
+    private void toPending(int begin, int end) {
+        if (window.hasArray()) {
+            appendPending(window.array(), window.arrayOffset() + begin, end - begin);
+        } else {
+            copyToValueBuffer(begin, end);
+            appendPending(valueBuffer, 0, valueLength);
+            valueLength = 0;
+        }
+        nextPos = end;
+    }
+
+    @Override
+    void openValue() {
+        valueStartPos = nextPos - 1;
+        valueLength = 0;
+    }
+
+    @Override
+    String closeValue() {
+        int end = Math.min(nextPos - 1, limit);
+        String val;
+        if (valueLength > 0) {
+            copyToValueBuffer(valueStartPos, end);
+            val = new String(valueBuffer, 0, valueLength, StandardCharsets.UTF_8);
+        } else if (window.hasArray()) {
+            val = new String(window.array(), window.arrayOffset() + valueStartPos, end - valueStartPos, StandardCharsets.UTF_8);
+        } else {
+            copyToValueBuffer(valueStartPos, end);
+            val = new String(valueBuffer, 0, valueLength, StandardCharsets.UTF_8);
+        }
+
+        valueStartPos = -1;
+        valueLength = 0;
+        return val;
+    }
+
+    @Override
+    void discardValue() {
+        valueStartPos = -1;
+        valueLength = 0;
+    }
+
+    @Override
+    int line() {
+        countPrevious();
+        int line = lineBase;
+        int end = Math.min(nextPos, limit);
+        for (int i = start; i < end; i++) {
+            if (window.get(i) == NEW_LINE) {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    @Override
+    int column() {
+        int column = 0;
+        for (int i = Math.min(nextPos, limit) - 1; i >= start; i--) {
+            byte b = window.get(i);
+            if (b == NEW_LINE) {
+                return column;
+            }
+
+            //多字节字符的后续字节不计入列数
+            if ((b & 0xC0) != 0x80) {
+                column++;
+            }
+        }
+
+        countPrevious();
+        return columnBase + column;
+    }
+
+    private void countPrevious() {
+        if (base == 0) {
+            return;
+        }
+
+        try {
+            countWindowsBefore(base);
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+
+    /**
+     * 将 little-endian 顺序的 {@code buffer} 中 [from, to) 的行数与列数累加到 {@code lineBase}、{@code columnBase}，
+     * 每次统计 8 个字节，见 {@link Swar#newLines(long)}
+     */
+    final void count(ByteBuffer buffer, int from, int to) {
+        int pos = from;
+        for (; pos + 8 <= to; pos += 8) {
+            long word = buffer.getLong(pos);
+            long newLines = Swar.newLines(word);
+            if (newLines == 0) {
+                columnBase += Long.bitCount(Swar.charStarts(word));
+            } else {
+                lineBase += Long.bitCount(newLines);
+                //最后一个换行符之后的字节
+                int last = 63 - Long.numberOfLeadingZeros(newLines);
+                long after = last == 63 ? 0 : -1L << (last + 1);
+                columnBase = Long.bitCount(Swar.charStarts(word) & after);
+            }
+        }
+
+        for (; pos < to; pos++) {
+            byte b = buffer.get(pos);
+            if (b == NEW_LINE) {
+                lineBase++;
+                columnBase = 0;
+            } else if ((b & 0xC0) != 0x80) {
+                columnBase++;
+            }
+        }
+    }
+
+    private boolean advance() throws IOException {
+        ByteBuffer next = nextWindow();
+        if (next == null) {
+            return false;
+        }
+
+        if (valueStartPos != -1) {
+            copyToValueBuffer(valueStartPos, limit);
+            valueStartPos = next.position();
+        }
+
+        //只记录偏移量，行数与列数在出错时才统计
+        base += limit - start;
+        setWindow(next);
+        return nextPos < limit || advance();
+    }
+
+    private void setWindow(ByteBuffer buffer) {
+        this.window = buffer;
+        this.view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.start = buffer.position();
+        this.nextPos = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * 将当前窗口中 [start, end) 的字节追加到 {@code valueBuffer}
+     */
+    private void copyToValueBuffer(int start, int end) {
+        int length = end - start;
+        if (valueBuffer == null) {
+            valueBuffer = new byte[Math.max(64, valueLength + length)];
+        } else if (valueBuffer.length < valueLength + length) {
+            valueBuffer = Arrays.copyOf(valueBuffer, Math.max(valueBuffer.length * 2, valueLength + length));
+        }
+
+        ((Buffer) view).position(start);
+        view.get(valueBuffer, valueLength, length);
+        valueLength += length;
+    }
+}
@@ -0,0 +1,61 @@
+package cn.zcn.json.stream;
+
+import java.util.Arrays;
+
+/**
+ * 记录当前所在容器的栈，每一层只占用 1 bit：{@code 1} 表示 JSON Object，{@code 0} 表示 JSON Array。
+ *
+ * @author zicung
+ */
+final class ContainerStack {
+
+    private long[] bits = new long[1];
+
+    private int depth = 0;
+
+    void push(boolean isObject) {
+        int word = depth >>> 6;
+        if (word == bits.length) {
+            bits = Arrays.copyOf(bits, bits.length * 2);
+        }
+
+        long mask = 1L << depth;
+        if (isObject) {
+            bits[word] |= mask;
+        } else {
+            bits[word] &= ~mask;
+        }
+        depth++;
+    }
+
+    /**
+     * 出栈
+     *
+     * @return 出栈的容器是否是 JSON Object
+     */
+    boolean pop() {
+        boolean isObject = isObject();
+        depth--;
+        return isObject;
+    }
+
+    /**
+     * 栈顶的容器是否是 JSON Object
+     */
+    boolean isObject() {
+        int top = depth - 1;
+        return (bits[top >>> 6] & (1L << top)) != 0;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    boolean isEmpty() {
+        return depth == 0;
+    }
+
+    void clear() {
+        depth = 0;
+    }
+}
@@ -2,8 +2,8 @@ package cn.zcn.json.stream;
 
 import cn.zcn.json.ast.*;
 
+import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.LinkedList;
 
 public class DefaultJsonListener extends JsonListener {
 
@@ -12,17 +12,39 @@ public class DefaultJsonListener extends JsonListener {
      * 当读取到 '['、'{' 时，入栈JsonObject、JsonArray。
      * 当读取到 '}'、']' 时，出栈。
      */
-    private final Deque<JsonValue> values = new LinkedList<>();
+    private final Deque<JsonValue> values = new ArrayDeque<>();
 
     /**
      * 存储 Json Object 的键名。
      * 当读取到 pair name 时，入栈。
      * 当读取完 pair value，出栈。
      */
-    private final Deque<String> names = new LinkedList<>();
+    private final Deque<String> names = new ArrayDeque<>();
 
     private JsonValue pre;
 
+    /**
+     * 当前 element value 是否已经直接存入了 JsonArray 的 {@code long[]}、{@code double[]} 中
+     */
+    private boolean appended;
+
+    /**
+     * 创建的 JSON Object 所使用的转移树。记录数组中相同 name 序列的 JSON Object 共享同一个 name 序列，
+     * 转移树在 {@link #reset()} 之后继续使用，直到达到上限
+     */
+    private Shape shapes = Shape.root();
+
+    @Override
+    public void reset() {
+        values.clear();
+        names.clear();
+        pre = null;
+        appended = false;
+        if (shapes.isFull()) {
+            shapes = Shape.root();
+        }
+    }
+
     @Override
     public void endNull() {
         values.offerLast(JsonPrimitive.NULL);
@@ -35,7 +57,7 @@ public class DefaultJsonListener extends JsonListener {
 
     @Override
     public void endString(String string) {
-        values.offerLast(new JsonPrimitive(string));
+        values.offerLast(JsonPrimitive.valueOf(string));
     }
 
     @Override
@@ -43,9 +65,31 @@ public class DefaultJsonListener extends JsonListener {
         values.offerLast(new JsonPrimitive(new LazyParsedNumber(number)));
     }
 
+    @Override
+    public void endLong(long number) {
+        JsonValue container = values.peekLast();
+        if (container != null && container.isArray()) {
+            container.asArray().addLong(number);
+            appended = true;
+        } else {
+            values.offerLast(JsonPrimitive.valueOf(number));
+        }
+    }
+
+    @Override
+    public void endDouble(double number) {
+        JsonValue container = values.peekLast();
+        if (container != null && container.isArray()) {
+            container.asArray().addDouble(number);
+            appended = true;
+        } else {
+            values.offerLast(JsonPrimitive.valueOf(number));
+        }
+    }
+
     @Override
     public void startObject() {
-        values.offerLast(new JsonObject());
+        values.offerLast(new JsonObject(shapes));
     }
 
     @Override
@@ -84,6 +128,11 @@ public class DefaultJsonListener extends JsonListener {
 
     @Override
     public void endArrayElement() {
+        if (appended) {
+            appended = false;
+            return;
+        }
+
         if (!values.isEmpty()) {
             JsonValue ele = (pre == null ? values.pollLast() : pre);
             JsonValue array = values.peekLast();
@@ -0,0 +1,291 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * 直接创建 Json Value 的 reader。
+ * <p>
+ * 与 {@link JsonReader} 使用 {@link DefaultJsonListener} 的结果相同，但不经过 {@link JsonListener} 的回调：
+ * JSON Object、JSON Array 在读取到 '{'、'[' 时就加入父节点，嵌套栈中只存储尚未读取完成的祖先节点，
+ * Number element 直接存入 JSON Array 的 {@code long[]}、{@code double[]}。
+ * 需要自定义处理 JSON 时使用 {@link JsonReader} 和 {@link JsonListener}。
+ *
+ * @author zicung
+ */
+public class DomReader extends AbstractReader {
+
+    /**
+     * 尚未读取完成的祖先节点，每个元素是 {@link JsonObject} 或 {@link JsonArray}
+     */
+    private JsonValue[] stack = new JsonValue[16];
+
+    private int depth;
+
+    /**
+     * 创建的 JSON Object 所使用的转移树，见 {@link Shape}
+     */
+    private Shape shapes = Shape.root();
+
+    public DomReader(Reader reader) {
+        super(reader, NO_LISTENER);
+    }
+
+    public DomReader(byte[] json) {
+        super(json, NO_LISTENER);
+    }
+
+    public DomReader(ByteBuffer json) {
+        super(json, NO_LISTENER);
+    }
+
+    public DomReader(FileChannel json) throws IOException {
+        super(json, NO_LISTENER);
+    }
+
+    DomReader(JsonSource source) {
+        super(source, NO_LISTENER);
+    }
+
+    public JsonValue read() {
+        try {
+            return doRead();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        Arrays.fill(stack, 0, depth, null);
+        depth = 0;
+        if (shapes.isFull()) {
+            shapes = Shape.root();
+        }
+    }
+
+    private JsonValue doRead() throws IOException {
+        readNext();
+        skipWhiteSpace();
+
+        JsonValue root;
+        if (current == JSON_OBJECT_BEGIN) {
+            root = new JsonObject(shapes);
+        } else if (current == JSON_ARRAY_BEGIN) {
+            root = new JsonArray();
+        } else {
+            throw unexpected("{", "[");
+        }
+
+        JsonValue container = root;
+        boolean first = true;
+        while (true) {
+            JsonValue child = container instanceof JsonObject ?
+                    readMembers((JsonObject) container, first) : readElements((JsonArray) container, first);
+
+            if (child != null) {
+                push(container);
+                container = child;
+                first = true;
+            } else if (depth > 0) {
+                container = stack[--depth];
+                stack[depth] = null;
+                first = false;
+            } else {
+                break;
+            }
+        }
+
+        readNext();
+        skipWhiteSpace();
+        if (current != -1) {
+            throw unexpected("EOF");
+        }
+        return root;
+    }
+
+    /**
+     * 读取 {@code object} 的 member，直到 '}' 或者一个 JSON Object、JSON Array 类型的 member value。
+     * 调用前 {@code current} 是 '{'（{@code first} 为 {@code true}）或者上一个子节点的 '}'、']'。
+     *
+     * @return 新创建的子节点，读取到 '}' 时返回 {@code null}
+     */
+    private JsonValue readMembers(JsonObject object, boolean first) throws IOException {
+        readNext();
+        skipWhiteSpace();
+        if (current == JSON_OBJECT_END) {
+            return null;
+        }
+        if (!first) {
+            nextElement("}");
+        }
+
+        while (true) {
+            if (current != JSON_QUOTATION_MARK) {
+                throw unexpected("Pair Name");
+            }
+            String name = readNameInternal();
+
+            readNext();
+            skipWhiteSpace();
+            if (current != JSON_NAME_SEPARATOR) {
+                throw unexpected(":");
+            }
+            readNext();
+            skipWhiteSpace();
+
+            switch (current) {
+                case JSON_OBJECT_BEGIN:
+                    JsonObject childObject = new JsonObject(shapes);
+                    object.set(name, childObject);
+                    return childObject;
+                case JSON_ARRAY_BEGIN:
+                    JsonArray childArray = new JsonArray();
+                    object.set(name, childArray);
+                    return childArray;
+                case JSON_QUOTATION_MARK:
+                    object.set(name, JsonPrimitive.valueOf(source.readString()));
+                    readNext();
+                    break;
+                case 't':
+                    skipLiteral("true");
+                    object.set(name, JsonPrimitive.TRUE);
+                    break;
+                case 'f':
+                    skipLiteral("false");
+                    object.set(name, JsonPrimitive.FALSE);
+                    break;
+                case 'n':
+                    skipLiteral("null");
+                    object.set(name, JsonPrimitive.NULL);
+                    break;
+                default:
+                    if (!isDigit() && current != '-') {
+                        throw unexpected("Pair Value");
+                    }
+                    object.set(name, readNumber());
+            }
+
+            skipWhiteSpace();
+            if (current == JSON_OBJECT_END) {
+                return null;
+            }
+            nextElement("}");
+        }
+    }
+
+    /**
+     * 读取 {@code array} 的 element，直到 ']' 或者一个 JSON Object、JSON Array 类型的 element。
+     * 调用前 {@code current} 是 '['（{@code first} 为 {@code true}）或者上一个子节点的 '}'、']'。
+     *
+     * @return 新创建的子节点，读取到 ']' 时返回 {@code null}
+     */
+    private JsonValue readElements(JsonArray array, boolean first) throws IOException {
+        readNext();
+        skipWhiteSpace();
+        if (current == JSON_ARRAY_END) {
+            return null;
+        }
+        if (!first) {
+            nextElement("]");
+        }
+
+        while (true) {
+            switch (current) {
+                case JSON_OBJECT_BEGIN:
+                    JsonObject childObject = new JsonObject(shapes);
+                    array.add(childObject);
+                    return childObject;
+                case JSON_ARRAY_BEGIN:
+                    JsonArray childArray = new JsonArray();
+                    array.add(childArray);
+                    return childArray;
+                case JSON_QUOTATION_MARK:
+                    array.add(JsonPrimitive.valueOf(source.readString()));
+                    readNext();
+                    break;
+                case 't':
+                    skipLiteral("true");
+                    array.add(JsonPrimitive.TRUE);
+                    break;
+                case 'f':
+                    skipLiteral("false");
+                    array.add(JsonPrimitive.FALSE);
+                    break;
+                case 'n':
+                    skipLiteral("null");
+                    array.add(JsonPrimitive.NULL);
+                    break;
+                default:
+                    if (!isDigit() && current != '-') {
+                        throw unexpected("Array Element");
+                    }
+
+                    switch (scanNumber()) {
+                        case LONG_NUMBER:
+                            array.addLong(longValue);
+                            break;
+                        case DOUBLE_NUMBER:
+                            array.addDouble(doubleValue);
+                            break;
+                        default:
+                            array.add(new JsonPrimitive(new LazyParsedNumber(textValue)));
+                    }
+            }
+
+            skipWhiteSpace();
+            if (current == JSON_ARRAY_END) {
+                return null;
+            }
+            nextElement("]");
+        }
+    }
+
+    /**
+     * 读取 member 或 element 之间的 ','，之后 {@code current} 是下一个 member 或 element 的第一个字符
+     */
+    private void nextElement(String end) throws IOException {
+        if (current != JSON_VALUE_SEPARATOR) {
+            throw unexpected(end, ",");
+        }
+        readNext();
+        skipWhiteSpace();
+    }
+
+    private JsonPrimitive readNumber() throws IOException {
+        switch (scanNumber()) {
+            case LONG_NUMBER:
+                return JsonPrimitive.valueOf(longValue);
+            case DOUBLE_NUMBER:
+                return JsonPrimitive.valueOf(doubleValue);
+            default:
+                return new JsonPrimitive(new LazyParsedNumber(textValue));
+        }
+    }
+
+    private void push(JsonValue container) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = container;
+    }
+
+    private JsonException unexpected(String... expected) {
+        StringBuilder s = new StringBuilder("Expected: ");
+        for (String e : expected) {
+            s.append("\"").append(e).append("\"").append(" , ");
+        }
+
+        s.append("but got: ").append(describeCurrent()).append(".Line: ")
+                .append(line()).append(", Column: ").append(column());
+        return new JsonException(s.toString());
+    }
+}
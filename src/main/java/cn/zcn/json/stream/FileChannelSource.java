@@ -0,0 +1,69 @@
+package cn.zcn.json.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * 使用内存映射读取文件的输入源。文件按窗口依次映射，因此可以读取超过 2GB 的文件，且不会把文件内容拷贝到堆中。
+ *
+ * @author zicung
+ */
+class FileChannelSource extends ByteBufferSource {
+
+    /**
+     * 每个映射窗口的大小
+     */
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final int windowSize;
+
+    /**
+     * 下一个窗口在文件中的起始位置
+     */
+    private long position;
+
+    /**
+     * 已经统计过行数与列数的文件内容的长度，只有在出错时才会统计
+     */
+    private long counted = 0;
+
+    FileChannelSource(FileChannel channel) throws IOException {
+        this(channel, WINDOW_SIZE);
+    }
+
+    FileChannelSource(FileChannel channel, int windowSize) throws IOException {
+        super(ByteBuffer.allocate(0));
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    ByteBuffer nextWindow() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+
+        long length = Math.min(windowSize, size - position);
+        ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        position += length;
+        return window;
+    }
+
+    @Override
+    void countWindowsBefore(long base) throws IOException {
+        //之前的窗口已经不再引用，按 WINDOW_SIZE 重新映射
+        while (counted < base) {
+            int length = (int) Math.min(WINDOW_SIZE, base - counted);
+            ByteBuffer previous = channel.map(FileChannel.MapMode.READ_ONLY, counted, length).order(ByteOrder.LITTLE_ENDIAN);
+            count(previous, 0, length);
+            counted += length;
+        }
+    }
+}
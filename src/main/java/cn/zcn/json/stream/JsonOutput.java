@@ -0,0 +1,81 @@
+package cn.zcn.json.stream;
+
+import java.io.IOException;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * JSON 输出目标，负责缓存输出内容并成块地写入底层的输出流。
+ * <p>
+ * 格式化时使用的换行与缩进预先生成为一个序列："\r\n" 之后跟随若干层缩进，写入第 n 层的换行时直接复制该序列的前缀。
+ *
+ * @author zicung
+ */
+abstract class JsonOutput {
+
+    /**
+     * 缩进符
+     */
+    String indent = DEFAULT_INDENT;
+
+    /**
+     * 写入一个 ASCII 字符
+     */
+    abstract void write(char c) throws IOException;
+
+    /**
+     * 写入 {@code s} 中 [start, end) 范围内的字符
+     */
+    abstract void write(CharSequence s, int start, int end) throws IOException;
+
+    void write(String s) throws IOException {
+        write(s, 0, s.length());
+    }
+
+    /**
+     * 写入 {@code long}，见 {@link Numbers#writeLong(long, byte[], int)}
+     */
+    abstract void writeLong(long value) throws IOException;
+
+    /**
+     * 写入 {@code double} 的最短十进制表示，见 {@link Schubfach}
+     */
+    abstract void writeDouble(double value) throws IOException;
+
+    /**
+     * 写入 {@code float} 的最短十进制表示，见 {@link Schubfach}
+     */
+    abstract void writeFloat(float value) throws IOException;
+
+    /**
+     * 写入换行以及 {@code depth} 层缩进
+     */
+    abstract void writeNewLine(int depth) throws IOException;
+
+    /**
+     * 将缓存的内容写入底层的输出流
+     */
+    abstract void drain() throws IOException;
+
+    /**
+     * 写入缓存的内容并 flush 底层的输出流
+     */
+    abstract void flush() throws IOException;
+
+    void setIndent(String indent) {
+        this.indent = indent;
+    }
+
+    /**
+     * 生成换行以及至少 {@code depth} 层缩进的序列
+     */
+    String newLines(int depth) {
+        int count = Math.max(16, Integer.highestOneBit(depth) << 1);
+        StringBuilder sb = new StringBuilder(2 + count * indent.length());
+        sb.append(LINE_FEED).append(NEW_LINE);
+        for (int i = 0; i < count; i++) {
+            sb.append(indent);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,379 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonListener;
+import cn.zcn.json.ast.LazyParsedNumber;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * 拉取式的 JSON 解析器。通过 {@link #nextToken()} 逐个读取 token，读取到需要的内容后可以随时停止，
+ * 也可以通过 {@link #skipChildren()} 跳过整个 JSON Object 或 JSON Array。
+ *
+ * <pre>
+ * JsonParser parser = new JsonParser(new StringReader(json));
+ * while (parser.nextToken() != JsonToken.END_DOCUMENT) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author zicung
+ */
+public class JsonParser extends AbstractReader {
+
+    /**
+     * 期待 JSON 的根节点：'{'、'['
+     */
+    private static final int EXPECT_ROOT = 0;
+
+    /**
+     * 期待第一个 member name 或 '}'
+     */
+    private static final int EXPECT_FIRST_NAME = 1;
+
+    /**
+     * 期待 member name
+     */
+    private static final int EXPECT_NAME = 2;
+
+    /**
+     * 期待第一个 element value 或 ']'
+     */
+    private static final int EXPECT_FIRST_VALUE = 3;
+
+    /**
+     * 期待 member value 或 element value
+     */
+    private static final int EXPECT_VALUE = 4;
+
+    /**
+     * 期待 ','、'}'、']'，或者在根节点结束后期待 EOF
+     */
+    private static final int EXPECT_SEPARATOR = 5;
+
+    private final ValueListener values;
+
+    private final ContainerStack containers = new ContainerStack();
+
+    private int state = EXPECT_ROOT;
+
+    private JsonToken token;
+
+    private String name;
+
+    public JsonParser(Reader reader) {
+        this(new ReaderSource(reader));
+    }
+
+    public JsonParser(byte[] json) {
+        this(new Utf8Source(json));
+    }
+
+    public JsonParser(ByteBuffer json) {
+        this(new ByteBufferSource(json));
+    }
+
+    JsonParser(JsonSource source) {
+        super(source, new ValueListener());
+        this.values = (ValueListener) listener;
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        containers.clear();
+        state = EXPECT_ROOT;
+        token = null;
+        name = null;
+    }
+
+    /**
+     * 读取下一个 token
+     *
+     * @return 下一个 token，JSON 读取结束后返回 {@link JsonToken#END_DOCUMENT}
+     */
+    public JsonToken nextToken() {
+        try {
+            return token = doNextToken();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+
+    /**
+     * 如果当前 token 是 {@link JsonToken#START_OBJECT} 或 {@link JsonToken#START_ARRAY}，跳过其中的所有内容，
+     * 当前 token 变为对应的 {@link JsonToken#END_OBJECT} 或 {@link JsonToken#END_ARRAY}。否则不做任何处理。
+     * <p>
+     * 跳过的内容不会被解析为 Json Value，但仍然会校验语法。
+     */
+    public void skipChildren() {
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return;
+        }
+
+        try {
+            //current 仍然是 '{'、'['，直接跳过整个容器
+            skipValueInternal();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+
+        containers.pop();
+        token = token == JsonToken.START_OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        state = EXPECT_SEPARATOR;
+    }
+
+    /**
+     * 当前 token
+     */
+    public JsonToken currentToken() {
+        return token;
+    }
+
+    /**
+     * 当前所在容器的嵌套深度，根节点内部为 1
+     */
+    public int depth() {
+        return containers.depth();
+    }
+
+    /**
+     * 最近一次读取到的 member name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getString() {
+        if (token == JsonToken.STRING) {
+            return values.string;
+        }
+
+        throw new UnsupportedOperationException("Current token is not a string.");
+    }
+
+    public boolean getBool() {
+        if (token == JsonToken.TRUE || token == JsonToken.FALSE) {
+            return token == JsonToken.TRUE;
+        }
+
+        throw new UnsupportedOperationException("Current token is not a bool.");
+    }
+
+    public Number getNumber() {
+        checkNumber();
+        switch (values.numberType) {
+            case ValueListener.LONG:
+                return values.longValue;
+            case ValueListener.DOUBLE:
+                return values.doubleValue;
+            default:
+                return new LazyParsedNumber(values.string);
+        }
+    }
+
+    public long getLong() {
+        checkNumber();
+        switch (values.numberType) {
+            case ValueListener.LONG:
+                return values.longValue;
+            case ValueListener.DOUBLE:
+                return (long) values.doubleValue;
+            default:
+                return Long.parseLong(values.string);
+        }
+    }
+
+    public int getInteger() {
+        return (int) getLong();
+    }
+
+    public double getDouble() {
+        checkNumber();
+        switch (values.numberType) {
+            case ValueListener.LONG:
+                return values.longValue;
+            case ValueListener.DOUBLE:
+                return values.doubleValue;
+            default:
+                return Double.parseDouble(values.string);
+        }
+    }
+
+    private void checkNumber() {
+        if (token != JsonToken.NUMBER) {
+            throw new UnsupportedOperationException("Current token is not a number.");
+        }
+    }
+
+    private JsonToken doNextToken() throws IOException {
+        if (token == null) {
+            readNext();
+        } else if (token == JsonToken.END_DOCUMENT) {
+            return JsonToken.END_DOCUMENT;
+        } else if (state == EXPECT_FIRST_NAME || state == EXPECT_FIRST_VALUE) {
+            //读取到 '{'、'[' 时不会立即前进，以便 skipChildren() 从 '{'、'[' 开始跳过整个容器
+            readNext();
+        }
+
+        skipWhiteSpace();
+
+        switch (state) {
+            case EXPECT_ROOT:
+                if (current != JSON_OBJECT_BEGIN && current != JSON_ARRAY_BEGIN) {
+                    throw unexpected("\"{\" , \"[\"");
+                }
+                return readValue();
+            case EXPECT_FIRST_NAME:
+                if (current == JSON_OBJECT_END) {
+                    return endContainer();
+                }
+                return readName();
+            case EXPECT_NAME:
+                return readName();
+            case EXPECT_FIRST_VALUE:
+                if (current == JSON_ARRAY_END) {
+                    return endContainer();
+                }
+                return readValue();
+            case EXPECT_VALUE:
+                return readValue();
+            default:
+                return readSeparator();
+        }
+    }
+
+    private JsonToken readSeparator() throws IOException {
+        if (containers.isEmpty()) {
+            if (current != -1) {
+                throw unexpected("\"EOF\"");
+            }
+            return JsonToken.END_DOCUMENT;
+        }
+
+        boolean inObject = containers.isObject();
+        if (current == JSON_VALUE_SEPARATOR) {
+            readNext();
+            skipWhiteSpace();
+            state = inObject ? EXPECT_NAME : EXPECT_VALUE;
+            return inObject ? readName() : readValue();
+        } else if (inObject && current == JSON_OBJECT_END || !inObject && current == JSON_ARRAY_END) {
+            return endContainer();
+        }
+
+        throw unexpected(inObject ? "\",\" , \"}\"" : "\",\" , \"]\"");
+    }
+
+    private JsonToken endContainer() throws IOException {
+        boolean isObject = containers.pop();
+        readNext();
+        state = EXPECT_SEPARATOR;
+        return isObject ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+
+    private JsonToken readName() throws IOException {
+        if (current != JSON_QUOTATION_MARK) {
+            throw unexpected("\"Pair Name\"");
+        }
+
+        name = readNameInternal();
+
+        isEqualsOrThrow(JSON_QUOTATION_MARK);
+        skipWhiteSpace();
+        isEqualsOrThrow(JSON_NAME_SEPARATOR);
+        state = EXPECT_VALUE;
+        return JsonToken.NAME;
+    }
+
+    private JsonToken readValue() throws IOException {
+        state = EXPECT_SEPARATOR;
+        switch (current) {
+            case JSON_OBJECT_BEGIN:
+                containers.push(true);
+                state = EXPECT_FIRST_NAME;
+                return JsonToken.START_OBJECT;
+            case JSON_ARRAY_BEGIN:
+                containers.push(false);
+                state = EXPECT_FIRST_VALUE;
+                return JsonToken.START_ARRAY;
+            case JSON_QUOTATION_MARK:
+                readStringInternal();
+                isEqualsOrThrow(JSON_QUOTATION_MARK);
+                return JsonToken.STRING;
+            case 't':
+                readTrueInternal();
+                return JsonToken.TRUE;
+            case 'f':
+                readFalseInternal();
+                return JsonToken.FALSE;
+            case 'n':
+                readNullInternal();
+                return JsonToken.NULL;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                readNumberInternal();
+                return JsonToken.NUMBER;
+            default:
+                throw unexpected("\"Value\"");
+        }
+    }
+
+    private JsonException unexpected(String expected) {
+        return new JsonException("Expected: " + expected + " but got: " + describeCurrent() +
+                ". Line: " + line() + ", Column: " + column());
+    }
+
+    /**
+     * 记录最近一次读取到的 Literal
+     */
+    private static class ValueListener extends JsonListener {
+
+        static final int LONG = 0;
+        static final int DOUBLE = 1;
+        static final int TEXT = 2;
+
+        private String string;
+
+        private int numberType;
+
+        private long longValue;
+
+        private double doubleValue;
+
+        @Override
+        public void endString(String string) {
+            this.string = string;
+        }
+
+        @Override
+        public void endNumber(String number) {
+            this.numberType = TEXT;
+            this.string = number;
+        }
+
+        @Override
+        public void endLong(long number) {
+            this.numberType = LONG;
+            this.longValue = number;
+        }
+
+        @Override
+        public void endDouble(double number) {
+            this.numberType = DOUBLE;
+            this.doubleValue = number;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonValue;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 编译后的 JSONPath，在解析 JSON 的同时求值，只创建匹配的 Json Value，不匹配的子树在扫描时直接跳过。
+ * <p>
+ * 支持的语法：
+ * <ul>
+ *     <li>{@code $}：根节点</li>
+ *     <li>{@code .name}、{@code ['name']}：member</li>
+ *     <li>{@code .*}、{@code [*]}：所有 member 或 element</li>
+ *     <li>{@code [1]}：element</li>
+ *     <li>{@code [start:end:step]}：element 切片，均可省略</li>
+ *     <li>{@code ..name}、{@code ..*}、{@code ..[1]}：递归查找所有子孙节点</li>
+ * </ul>
+ * 由于不会预先读取 JSON Array 的长度，不支持负数索引。匹配的 Json Value 按照其解析完成的顺序输出，
+ * 因此使用递归查找时，嵌套在匹配结果中的匹配结果会先输出。
+ *
+ * <pre>
+ * List&lt;JsonValue&gt; ids = JsonPath.compile("$.items[*].id").read(json);
+ * </pre>
+ *
+ * @author zicung
+ */
+public final class JsonPath {
+
+    /**
+     * 最多支持的步骤数量，求值时使用 {@code long} 的每一位表示一个步骤
+     */
+    private static final int MAX_STEPS = 63;
+
+    private final String path;
+
+    private final Step[] steps;
+
+    private JsonPath(String path, Step[] steps) {
+        this.path = path;
+        this.steps = steps;
+    }
+
+    public static JsonPath compile(String path) {
+        return new Compiler(path).compile();
+    }
+
+    public List<JsonValue> read(String json) {
+        return read(new StringReader(json));
+    }
+
+    public List<JsonValue> read(Reader json) {
+        List<JsonValue> values = new ArrayList<>();
+        read(json, values::add);
+        return values;
+    }
+
+    public List<JsonValue> read(byte[] json) {
+        List<JsonValue> values = new ArrayList<>();
+        read(json, values::add);
+        return values;
+    }
+
+    /**
+     * 解析 JSON，每当匹配的 Json Value 解析完成时交给 {@code consumer}
+     */
+    public void read(Reader json, Consumer<JsonValue> consumer) {
+        new JsonReader(json, new JsonPathListener(steps, consumer)).read();
+    }
+
+    /**
+     * 解析 UTF-8 编码的 JSON，每当匹配的 Json Value 解析完成时交给 {@code consumer}
+     */
+    public void read(byte[] json, Consumer<JsonValue> consumer) {
+        new JsonReader(json, new JsonPathListener(steps, consumer)).read();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * JSONPath 中的一个步骤
+     */
+    static final class Step {
+
+        static final int CHILD = 0;
+        static final int WILDCARD = 1;
+        static final int INDEX = 2;
+        static final int SLICE = 3;
+
+        final int type;
+
+        /**
+         * 是否递归匹配所有子孙节点，即 {@code ..}
+         */
+        final boolean recursive;
+
+        final String name;
+
+        final int start;
+
+        final int end;
+
+        final int step;
+
+        Step(int type, boolean recursive, String name, int start, int end, int step) {
+            this.type = type;
+            this.recursive = recursive;
+            this.name = name;
+            this.start = start;
+            this.end = end;
+            this.step = step;
+        }
+
+        /**
+         * 判断子节点是否匹配当前步骤。
+         *
+         * @param name  member name，子节点是 element 时为 {@code null}
+         * @param index element 的索引
+         */
+        boolean matches(String name, int index) {
+            switch (type) {
+                case WILDCARD:
+                    return true;
+                case CHILD:
+                    return name != null && this.name.equals(name);
+                case INDEX:
+                    return name == null && index == start;
+                default:
+                    return name == null && index >= start && index < end && (index - start) % step == 0;
+            }
+        }
+    }
+
+    private static final class Compiler {
+
+        private final String path;
+
+        private final List<Step> steps = new ArrayList<>();
+
+        private int pos = 0;
+
+        Compiler(String path) {
+            this.path = path;
+        }
+
+        JsonPath compile() {
+            if (path.isEmpty() || path.charAt(pos++) != '$') {
+                throw invalid();
+            }
+
+            while (pos < path.length()) {
+                char c = path.charAt(pos);
+                if (c == '[') {
+                    readBracket(false);
+                } else if (c == '.') {
+                    boolean recursive = ++pos < path.length() && path.charAt(pos) == '.';
+                    if (recursive) {
+                        pos++;
+                    }
+
+                    if (pos < path.length() && path.charAt(pos) == '[' && recursive) {
+                        readBracket(true);
+                    } else if (pos < path.length() && path.charAt(pos) == '*') {
+                        pos++;
+                        add(new Step(Step.WILDCARD, recursive, null, 0, 0, 0));
+                    } else {
+                        readName(recursive);
+                    }
+                } else {
+                    throw invalid();
+                }
+            }
+
+            return new JsonPath(path, steps.toArray(new Step[0]));
+        }
+
+        private void readName(boolean recursive) {
+            int start = pos;
+            while (pos < path.length() && path.charAt(pos) != '.' && path.charAt(pos) != '[') {
+                pos++;
+            }
+
+            if (pos == start) {
+                throw invalid();
+            }
+            add(new Step(Step.CHILD, recursive, path.substring(start, pos), 0, 0, 0));
+        }
+
+        private void readBracket(boolean recursive) {
+            pos++;
+            if (pos >= path.length()) {
+                throw invalid();
+            }
+
+            char c = path.charAt(pos);
+            if (c == '*') {
+                pos++;
+                add(new Step(Step.WILDCARD, recursive, null, 0, 0, 0));
+            } else if (c == '\'' || c == '"') {
+                int end = path.indexOf(c, pos + 1);
+                if (end < 0) {
+                    throw invalid();
+                }
+                add(new Step(Step.CHILD, recursive, path.substring(pos + 1, end), 0, 0, 0));
+                pos = end + 1;
+            } else {
+                int end = path.indexOf(']', pos);
+                if (end < 0) {
+                    throw invalid();
+                }
+
+                String[] parts = path.substring(pos, end).split(":", -1);
+                if (parts.length == 1) {
+                    int index = readIndex(parts[0], -1);
+                    add(new Step(Step.INDEX, recursive, null, index, 0, 0));
+                } else if (parts.length <= 3) {
+                    int start = readIndex(parts[0], 0);
+                    int stop = readIndex(parts[1], Integer.MAX_VALUE);
+                    int step = parts.length == 3 ? readIndex(parts[2], 1) : 1;
+                    if (step == 0) {
+                        throw invalid();
+                    }
+                    add(new Step(Step.SLICE, recursive, null, start, stop, step));
+                } else {
+                    throw invalid();
+                }
+                pos = end;
+            }
+
+            if (pos >= path.length() || path.charAt(pos) != ']') {
+                throw invalid();
+            }
+            pos++;
+        }
+
+        private int readIndex(String s, int defaultValue) {
+            s = s.trim();
+            if (s.isEmpty()) {
+                if (defaultValue < 0) {
+                    throw invalid();
+                }
+                return defaultValue;
+            }
+
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                    throw new JsonException("Unsupported index \"" + s + "\" in json path: " + path +
+                            ". Only non-negative integers are supported.");
+                }
+            }
+
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                throw invalid();
+            }
+        }
+
+        private void add(Step step) {
+            if (steps.size() == MAX_STEPS) {
+                throw new JsonException("Too many steps in json path: " + path);
+            }
+            steps.add(step);
+        }
+
+        private JsonException invalid() {
+            return new JsonException("Invalid json path: " + path + ". Index: " + pos);
+        }
+    }
+}
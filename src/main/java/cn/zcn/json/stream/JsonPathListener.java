@@ -0,0 +1,274 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.*;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 在解析的同时对 {@link JsonPath} 求值的 listener。
+ * <p>
+ * 每一层容器记录仍然可能匹配的步骤集合，{@code long} 的第 k 位表示已经匹配了前 k 个步骤。
+ * 读取子节点之前根据 member name 或 element 的索引计算子节点的步骤集合，
+ * 如果子节点既不匹配整个 JSONPath，其子孙节点也不可能匹配，则让 reader 直接跳过该子节点。
+ * 匹配的 JSON Object、JSON Array 交给 {@link DefaultJsonListener} 创建。
+ *
+ * @author zicung
+ */
+class JsonPathListener extends JsonListener {
+
+    private final JsonPath.Step[] steps;
+
+    /**
+     * 表示已经匹配了所有步骤的位
+     */
+    private final long matchedBit;
+
+    private final Consumer<JsonValue> consumer;
+
+    /**
+     * 每一层容器的步骤集合
+     */
+    private long[] actives = new long[16];
+
+    /**
+     * 每一层 JSON Array 的下一个 element 的索引
+     */
+    private int[] indexes = new int[16];
+
+    private int depth = 0;
+
+    /**
+     * 即将读取的子节点的步骤集合
+     */
+    private long pendingActive;
+
+    /**
+     * 即将读取的子节点是否匹配
+     */
+    private boolean pendingMatch;
+
+    private String name;
+
+    /**
+     * 正在创建的匹配结果，以及它们所在的层数
+     */
+    private DefaultJsonListener[] builders = new DefaultJsonListener[4];
+
+    private int[] builderDepths = new int[4];
+
+    private int builderCount = 0;
+
+    JsonPathListener(JsonPath.Step[] steps, Consumer<JsonValue> consumer) {
+        this.steps = steps;
+        this.matchedBit = 1L << steps.length;
+        this.consumer = consumer;
+        this.pendingMatch = steps.length == 0;
+        this.pendingActive = pendingMatch ? 0 : 1L;
+    }
+
+    @Override
+    public boolean skipObjectValue(boolean container) {
+        return enter(name, 0, container);
+    }
+
+    @Override
+    public boolean skipArrayElement(boolean container) {
+        return enter(null, indexes[depth - 1]++, container);
+    }
+
+    private boolean enter(String name, int index, boolean container) {
+        long active = actives[depth - 1];
+        long next = 0;
+        while (active != 0) {
+            int k = Long.numberOfTrailingZeros(active);
+            active &= active - 1;
+
+            JsonPath.Step step = steps[k];
+            if (step.recursive) {
+                next |= 1L << k;
+            }
+            if (step.matches(name, index)) {
+                next |= 1L << (k + 1);
+            }
+        }
+
+        pendingMatch = (next & matchedBit) != 0;
+        pendingActive = next & ~matchedBit;
+
+        if (pendingMatch || builderCount > 0) {
+            return false;
+        }
+        return !container || pendingActive == 0;
+    }
+
+    @Override
+    public void startObject() {
+        enterContainer();
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].startObject();
+        }
+    }
+
+    @Override
+    public void endObject() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endObject();
+        }
+        exitContainer();
+    }
+
+    @Override
+    public void startArray() {
+        enterContainer();
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].startArray();
+        }
+    }
+
+    @Override
+    public void endArray() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endArray();
+        }
+        exitContainer();
+    }
+
+    private void enterContainer() {
+        if (depth == actives.length) {
+            actives = Arrays.copyOf(actives, depth * 2);
+            indexes = Arrays.copyOf(indexes, depth * 2);
+        }
+
+        actives[depth] = pendingActive;
+        indexes[depth] = 0;
+        depth++;
+
+        if (pendingMatch) {
+            pendingMatch = false;
+            if (builderCount == builders.length) {
+                builders = Arrays.copyOf(builders, builderCount * 2);
+                builderDepths = Arrays.copyOf(builderDepths, builderCount * 2);
+            }
+            builders[builderCount] = new DefaultJsonListener();
+            builderDepths[builderCount++] = depth;
+        }
+    }
+
+    private void exitContainer() {
+        if (builderCount > 0 && builderDepths[builderCount - 1] == depth) {
+            DefaultJsonListener builder = builders[--builderCount];
+            builders[builderCount] = null;
+            consumer.accept(builder.getRoot());
+        }
+        depth--;
+    }
+
+    @Override
+    public void startObjectName() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].startObjectName();
+        }
+    }
+
+    @Override
+    public void endObjectName(String name) {
+        this.name = name;
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endObjectName(name);
+        }
+    }
+
+    @Override
+    public void startObjectValue() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].startObjectValue();
+        }
+    }
+
+    @Override
+    public void endObjectValue() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endObjectValue();
+        }
+    }
+
+    @Override
+    public void startArrayElement() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].startArrayElement();
+        }
+    }
+
+    @Override
+    public void endArrayElement() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endArrayElement();
+        }
+    }
+
+    @Override
+    public void endNull() {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endNull();
+        }
+        if (pendingMatch) {
+            emit(JsonPrimitive.NULL);
+        }
+    }
+
+    @Override
+    public void endBool(boolean bool) {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endBool(bool);
+        }
+        if (pendingMatch) {
+            emit(bool ? JsonPrimitive.TRUE : JsonPrimitive.FALSE);
+        }
+    }
+
+    @Override
+    public void endString(String string) {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endString(string);
+        }
+        if (pendingMatch) {
+            emit(JsonPrimitive.valueOf(string));
+        }
+    }
+
+    @Override
+    public void endNumber(String number) {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endNumber(number);
+        }
+        if (pendingMatch) {
+            emit(new JsonPrimitive(new LazyParsedNumber(number)));
+        }
+    }
+
+    @Override
+    public void endLong(long number) {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endLong(number);
+        }
+        if (pendingMatch) {
+            emit(JsonPrimitive.valueOf(number));
+        }
+    }
+
+    @Override
+    public void endDouble(double number) {
+        for (int i = 0; i < builderCount; i++) {
+            builders[i].endDouble(number);
+        }
+        if (pendingMatch) {
+            emit(JsonPrimitive.valueOf(number));
+        }
+    }
+
+    private void emit(JsonValue value) {
+        pendingMatch = false;
+        consumer.accept(value);
+    }
+}
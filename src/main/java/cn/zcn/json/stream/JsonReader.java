@@ -4,57 +4,187 @@ import cn.zcn.json.ast.*;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import static cn.zcn.json.ast.JsonCharacters.*;
 
 /**
- * 使用迭代的方式解析 JSON
+ * 使用迭代的方式解析 JSON。
+ * <p>
+ * 语法由一张转移表驱动：当前状态与当前字符的类别确定要执行的动作，见 {@link #ACTIONS}。
+ * 所在的 JSON Object、JSON Array 记录在每层只占 1 bit 的 {@link ContainerStack} 中，解析过程中不会为语法状态分配内存。
  *
  * @author zicung
  */
 public class JsonReader extends AbstractReader {
 
     /**
-     * 使用二进制判断当前迭代的状态。
-     * 使用 "|" 让二进制中的每一位的 "1" 表示其中一个状态。 e.g. 001 | 010 = 011
-     * 利用 "&" 可以快速判断出当前状态与期望状态是否匹配。   e.g. 011 & 001 = 001 != 0
+     * 状态，表示下一个 token 可以是什么
      */
-    private static final int BEGIN_OBJECT = 0x001; // {
-    private static final int END_OBJECT = 0x002; // }
-    private static final int BEGIN_ARRAY = 0x004;  // [
-    private static final int END_ARRAY = 0x008; // ]
-    private static final int OBJECT_NAME_SEPARATOR = 0x010; // :
-    private static final int ELEMENT_SEPARATOR = 0x020; // ,
-    private static final int OBJECT_NAME = 0x040;
-    private static final int OBJECT_VALUE = 0x080;
-    private static final int ARRAY_VALUE = 0x100;
-    private static final int END_DOCUMENT = 0x200;
-    private static final Map<Integer, String> STATE_HITS = new HashMap<>();
+    private static final int START = 0; // { [
+    private static final int OBJECT_FIRST = 1; // } Pair Name
+    private static final int OBJECT_NAME = 2; // Pair Name
+    private static final int OBJECT_NAME_SEPARATOR = 3; // :
+    private static final int OBJECT_VALUE = 4; // Pair Value { [
+    private static final int OBJECT_NEXT = 5; // } ,
+    private static final int ARRAY_FIRST = 6; // ] Array Element { [
+    private static final int ARRAY_VALUE = 7; // Array Element { [
+    private static final int ARRAY_NEXT = 8; // ] ,
+    private static final int END_DOCUMENT = 9; // EOF
+    private static final int STATE_COUNT = 10;
+
+    /**
+     * 字符的类别
+     */
+    private static final int C_OTHER = 0;
+    private static final int C_EOF = 1;
+    private static final int C_BEGIN_OBJECT = 2; // {
+    private static final int C_END_OBJECT = 3; // }
+    private static final int C_BEGIN_ARRAY = 4; // [
+    private static final int C_END_ARRAY = 5; // ]
+    private static final int C_QUOTATION_MARK = 6; // "
+    private static final int C_NAME_SEPARATOR = 7; // :
+    private static final int C_VALUE_SEPARATOR = 8; // ,
+    private static final int C_LITERAL = 9; // t f n
+    private static final int C_NUMBER = 10; // - 0-9
+    private static final int CLASS_COUNT = 11;
+
+    /**
+     * 动作
+     */
+    private static final byte UNEXPECTED = 0;
+    private static final byte BEGIN_ROOT_OBJECT = 1;
+    private static final byte BEGIN_ROOT_ARRAY = 2;
+    private static final byte MEMBER_VALUE = 3;
+    private static final byte ARRAY_ELEMENT = 4;
+    private static final byte END_OBJECT = 5;
+    private static final byte END_ARRAY = 6;
+    private static final byte READ_NAME = 7;
+    private static final byte NAME_SEPARATOR = 8;
+    private static final byte MEMBER_SEPARATOR = 9;
+    private static final byte ELEMENT_SEPARATOR = 10;
+    private static final byte END_ELEMENTS = 11;
+    private static final byte FINISH = 12;
+
+    /**
+     * ASCII 字符的类别，其余字符都是 {@link #C_OTHER}
+     */
+    private static final byte[] CLASSES = new byte[128];
+
+    /**
+     * 转移表，{@code ACTIONS[state * CLASS_COUNT + class]} 是在 {@code state} 状态下读取到 {@code class} 类别的字符时执行的动作
+     */
+    private static final byte[] ACTIONS = new byte[STATE_COUNT * CLASS_COUNT];
+
+    /**
+     * 每个状态期望的 token，用于错误信息
+     */
+    private static final String[] EXPECTED = new String[STATE_COUNT];
+
+    /**
+     * 可以开始一个 value 的字符类别。{@link #C_OTHER} 也包含在内，先询问 listener 是否跳过，之后再报告错误
+     */
+    private static final int[] VALUE_CLASSES = {C_OTHER, C_BEGIN_OBJECT, C_BEGIN_ARRAY, C_QUOTATION_MARK, C_LITERAL, C_NUMBER};
 
     static {
-        STATE_HITS.put(BEGIN_OBJECT, "{");
-        STATE_HITS.put(END_OBJECT, "}");
-        STATE_HITS.put(BEGIN_ARRAY, "[");
-        STATE_HITS.put(END_ARRAY, "]");
-        STATE_HITS.put(OBJECT_NAME_SEPARATOR, ":");
-        STATE_HITS.put(ELEMENT_SEPARATOR, ",");
-        STATE_HITS.put(OBJECT_NAME, "Pair Name");
-        STATE_HITS.put(OBJECT_VALUE, "Pair Value");
-        STATE_HITS.put(ARRAY_VALUE, "Array Element");
-        STATE_HITS.put(END_DOCUMENT, "EOF");
+        CLASSES[JSON_OBJECT_BEGIN] = C_BEGIN_OBJECT;
+        CLASSES[JSON_OBJECT_END] = C_END_OBJECT;
+        CLASSES[JSON_ARRAY_BEGIN] = C_BEGIN_ARRAY;
+        CLASSES[JSON_ARRAY_END] = C_END_ARRAY;
+        CLASSES[JSON_QUOTATION_MARK] = C_QUOTATION_MARK;
+        CLASSES[JSON_NAME_SEPARATOR] = C_NAME_SEPARATOR;
+        CLASSES[JSON_VALUE_SEPARATOR] = C_VALUE_SEPARATOR;
+        CLASSES['t'] = C_LITERAL;
+        CLASSES['f'] = C_LITERAL;
+        CLASSES['n'] = C_LITERAL;
+        CLASSES['-'] = C_NUMBER;
+        for (char c = '0'; c <= '9'; c++) {
+            CLASSES[c] = C_NUMBER;
+        }
+
+        on(START, C_BEGIN_OBJECT, BEGIN_ROOT_OBJECT);
+        on(START, C_BEGIN_ARRAY, BEGIN_ROOT_ARRAY);
+
+        on(OBJECT_FIRST, C_END_OBJECT, END_OBJECT);
+        on(OBJECT_FIRST, C_QUOTATION_MARK, READ_NAME);
+        on(OBJECT_NAME, C_QUOTATION_MARK, READ_NAME);
+        on(OBJECT_NAME_SEPARATOR, C_NAME_SEPARATOR, NAME_SEPARATOR);
+        on(OBJECT_NEXT, C_END_OBJECT, END_OBJECT);
+        on(OBJECT_NEXT, C_VALUE_SEPARATOR, MEMBER_SEPARATOR);
+
+        on(ARRAY_FIRST, C_END_ARRAY, END_ARRAY);
+        on(ARRAY_NEXT, C_END_ARRAY, END_ARRAY);
+        on(ARRAY_NEXT, C_VALUE_SEPARATOR, ELEMENT_SEPARATOR);
+        on(ARRAY_NEXT, C_EOF, END_ELEMENTS);
+
+        for (int c : VALUE_CLASSES) {
+            on(OBJECT_VALUE, c, MEMBER_VALUE);
+            on(ARRAY_FIRST, c, ARRAY_ELEMENT);
+            on(ARRAY_VALUE, c, ARRAY_ELEMENT);
+        }
+
+        on(END_DOCUMENT, C_EOF, FINISH);
+
+        EXPECTED[START] = expected("[", "{");
+        EXPECTED[OBJECT_FIRST] = expected("Pair Name", "}");
+        EXPECTED[OBJECT_NAME] = expected("Pair Name");
+        EXPECTED[OBJECT_NAME_SEPARATOR] = expected(":");
+        EXPECTED[OBJECT_VALUE] = expected("Pair Value", "[", "{");
+        EXPECTED[OBJECT_NEXT] = expected(",", "}");
+        EXPECTED[ARRAY_FIRST] = expected("Array Element", "]", "[", "{");
+        EXPECTED[ARRAY_VALUE] = expected("Array Element", "[", "{");
+        EXPECTED[ARRAY_NEXT] = expected(",", "]");
+        EXPECTED[END_DOCUMENT] = expected("EOF");
+    }
+
+    private static void on(int state, int charClass, byte action) {
+        ACTIONS[state * CLASS_COUNT + charClass] = action;
     }
 
+    private static String expected(String... tokens) {
+        StringBuilder s = new StringBuilder("Expected: ");
+        for (String token : tokens) {
+            s.append("\"").append(token).append("\"").append(" , ");
+        }
+        return s.toString();
+    }
+
+    /**
+     * 当前状态
+     */
+    private int state;
+
+    /**
+     * 当前所在的 JSON Object、JSON Array 的嵌套栈
+     */
+    private final ContainerStack containers = new ContainerStack();
+
     /**
-     * 下一个期待的状态
+     * 是否正在读取不包含外层 '['、']' 的 element 序列，见 {@link #readElements()}
      */
-    private int nextState;
+    private boolean elements;
 
     public JsonReader(Reader reader, JsonListener listener) {
         super(reader, listener);
     }
 
+    public JsonReader(byte[] json, JsonListener listener) {
+        super(json, listener);
+    }
+
+    public JsonReader(ByteBuffer json, JsonListener listener) {
+        super(json, listener);
+    }
+
+    public JsonReader(FileChannel json, JsonListener listener) throws IOException {
+        super(json, listener);
+    }
+
+    JsonReader(JsonSource source, JsonListener listener) {
+        super(source, listener);
+    }
+
     public JsonValue read() {
         try {
             return doRead();
@@ -63,255 +193,194 @@ public class JsonReader extends AbstractReader {
         }
     }
 
+    @Override
+    protected void reset() {
+        super.reset();
+        state = START;
+        containers.clear();
+        elements = false;
+    }
+
+    /**
+     * 读取不包含外层 '['、']' 的 element 序列，e.g. {@code 1, {"a": 2}, [3]}，返回包含这些 element 的 JSON Array。
+     * 用于分段并行读取同一个 JSON Array。
+     */
+    JsonValue readElements() {
+        elements = true;
+        containers.push(false);
+        listener.startArray();
+        state = ARRAY_VALUE;
+        return read();
+    }
+
     private JsonValue doRead() throws IOException {
-        boolean readNext = true;
-        setNextState(BEGIN_OBJECT, BEGIN_ARRAY);
-        while (true) {
-            if (readNext) {
-                readNext();
-            } else {
-                readNext = true;
-            }
+        if (!elements) {
+            state = START;
+        }
 
+        readNext();
+        while (true) {
             skipWhiteSpace();
 
-            switch (current) {
-                case -1:
-                    checkState(END_DOCUMENT);
-                    return listener.getRoot();
-                case JSON_OBJECT_BEGIN:
-                    enterObject();
+            int c = current;
+            int charClass = c < 0 ? C_EOF : c < CLASSES.length ? CLASSES[c] : C_OTHER;
+            switch (ACTIONS[state * CLASS_COUNT + charClass]) {
+                case BEGIN_ROOT_OBJECT:
+                    beginObject();
                     break;
-                case JSON_OBJECT_END:
-                    exitObject();
+                case BEGIN_ROOT_ARRAY:
+                    beginArray();
                     break;
-                case JSON_ARRAY_BEGIN:
-                    enterArray();
+                case MEMBER_VALUE:
+                    readValue(true, charClass);
                     break;
-                case JSON_ARRAY_END:
-                    exitArray();
+                case ARRAY_ELEMENT:
+                    readValue(false, charClass);
                     break;
-                case JSON_QUOTATION_MARK:
-                    readString();
+                case END_OBJECT:
+                    listener.endObject();
+                    endContainer();
                     break;
-                case JSON_VALUE_SEPARATOR:
-                    enterComma();
+                case END_ARRAY:
+                    if (elements && containers.depth() == 1) {
+                        throw new JsonException("Unexpected end of elements. Line: " + line() + ", Column: " + column());
+                    }
+                    listener.endArray();
+                    endContainer();
                     break;
-                case JSON_NAME_SEPARATOR:
-                    enterColon();
+                case READ_NAME:
+                    listener.startObjectName();
+                    listener.endObjectName(readNameInternal());
+                    readNext();
+                    state = OBJECT_NAME_SEPARATOR;
                     break;
-                case 't':
-                    readTrue();
-                    readNext = false;
+                case NAME_SEPARATOR:
+                    readNext();
+                    state = OBJECT_VALUE;
                     break;
-                case 'f':
-                    readFalse();
-                    readNext = false;
+                case MEMBER_SEPARATOR:
+                    readNext();
+                    state = OBJECT_NAME;
                     break;
-                case 'n':
-                    readNull();
-                    readNext = false;
-                    break;
-                case '0':
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                case '5':
-                case '6':
-                case '7':
-                case '8':
-                case '9':
-                    readNumber();
-                    readNext = false;
+                case ELEMENT_SEPARATOR:
+                    readNext();
+                    state = ARRAY_VALUE;
                     break;
+                case END_ELEMENTS:
+                    if (!elements || containers.depth() != 1) {
+                        throw unexpectedStateException();
+                    }
+                    containers.pop();
+                    listener.endArray();
+                    return listener.getRoot();
+                case FINISH:
+                    return listener.getRoot();
                 default:
-                    throw new JsonException("Unsupported json value prefix: " + (char) current);
+                    throw unexpectedStateException();
             }
         }
     }
 
-    private void enterColon() {
-        checkState(OBJECT_NAME_SEPARATOR);
-        setNextState(OBJECT_VALUE, BEGIN_OBJECT, BEGIN_ARRAY);
-    }
-
-    private void enterComma() {
-        if (hasState(END_ARRAY)) {
-            setNextState(ARRAY_VALUE, BEGIN_OBJECT, BEGIN_ARRAY);
-        } else if (hasState(END_OBJECT)) {
-            setNextState(OBJECT_NAME);
-        } else {
-            throwUnexpectedStateException();
+    /**
+     * 读取一个 member value 或 element，读取完成后 {@code current} 是 value 之后的第一个字符
+     *
+     * @param member 是否是 member value
+     */
+    private void readValue(boolean member, int charClass) throws IOException {
+        if (skipValue(member, charClass)) {
+            state = member ? OBJECT_NEXT : ARRAY_NEXT;
+            return;
         }
-    }
-
-    private void exitArray() {
-        checkState(END_ARRAY);
-        listener.endArray();
-        endCollection();
-    }
-
-    private void enterArray() {
-        checkState(BEGIN_ARRAY);
-        listener.startArray();
-        setNextState(END_ARRAY, ARRAY_VALUE, BEGIN_OBJECT);
-    }
-
-    private void enterObject() {
-        checkState(BEGIN_OBJECT);
-        listener.startObject();
-        setNextState(END_OBJECT, OBJECT_NAME);
-    }
-
-    public void exitObject() {
-        checkState(END_OBJECT);
-        listener.endObject();
-        endCollection();
-    }
 
-    private void endCollection() {
-        if (listener.size() > 0) {
-            if (listener.peekLast().isObject()) {
-                listener.endObjectValue();
-                setNextState(END_OBJECT, ELEMENT_SEPARATOR);
-            } else {
-                listener.endArrayElement();
-                setNextState(END_ARRAY, ELEMENT_SEPARATOR);
-            }
-        } else {
-            setNextState(END_DOCUMENT);
+        switch (charClass) {
+            case C_BEGIN_OBJECT:
+                beginObject();
+                return;
+            case C_BEGIN_ARRAY:
+                beginArray();
+                return;
+            case C_OTHER:
+                throw unexpectedStateException();
+            default:
+                break;
         }
-    }
 
-    private void readTrue() throws IOException {
-        if (hasState(OBJECT_VALUE)) {
+        if (member) {
             listener.startObjectValue();
-            readTrueInternal();
-            listener.endObjectValue();
-            setNextState(END_OBJECT, ELEMENT_SEPARATOR);
-        } else if (hasState(ARRAY_VALUE)) {
-            listener.startArrayElement();
-            readTrueInternal();
-            listener.endArrayElement();
-            setNextState(END_ARRAY, ELEMENT_SEPARATOR);
         } else {
-            throwUnexpectedStateException();
-        }
-    }
-
-    private void readFalse() throws IOException {
-        if (hasState(OBJECT_VALUE)) {
-            listener.startObjectValue();
-            readFalseInternal();
-            listener.endObjectValue();
-            setNextState(END_OBJECT, ELEMENT_SEPARATOR);
-        } else if (hasState(ARRAY_VALUE)) {
             listener.startArrayElement();
-            readFalseInternal();
-            listener.endArrayElement();
-            setNextState(END_ARRAY, ELEMENT_SEPARATOR);
-        } else {
-            throwUnexpectedStateException();
         }
-    }
 
-    private void readNull() throws IOException {
-        if (hasState(OBJECT_VALUE)) {
-            listener.startObjectValue();
-            readNullInternal();
-            listener.endObjectValue();
-            setNextState(END_OBJECT, ELEMENT_SEPARATOR);
-        } else if (hasState(ARRAY_VALUE)) {
-            listener.startArrayElement();
-            readNullInternal();
-            listener.endArrayElement();
-            setNextState(END_ARRAY, ELEMENT_SEPARATOR);
-        } else {
-            throwUnexpectedStateException();
+        switch (current) {
+            case JSON_QUOTATION_MARK:
+                readStringInternal();
+                readNext();
+                break;
+            case 't':
+                readTrueInternal();
+                break;
+            case 'f':
+                readFalseInternal();
+                break;
+            case 'n':
+                readNullInternal();
+                break;
+            default:
+                readNumberInternal();
         }
-    }
 
-    private void readNumber() throws IOException {
-        if (hasState(OBJECT_VALUE)) {
-            listener.startObjectValue();
-            readNumberInternal();
+        if (member) {
             listener.endObjectValue();
-            setNextState(END_OBJECT, ELEMENT_SEPARATOR);
-        } else if (hasState(ARRAY_VALUE)) {
-            listener.startArrayElement();
-            readNumberInternal();
-            listener.endArrayElement();
-            setNextState(END_ARRAY, ELEMENT_SEPARATOR);
+            state = OBJECT_NEXT;
         } else {
-            throwUnexpectedStateException();
-        }
-    }
-
-    private void readString() throws IOException {
-        if (hasState(OBJECT_NAME)) {
-            listener.startObjectName();
-            String name = readName();
-            listener.endObjectName(name);
-            setNextState(OBJECT_NAME_SEPARATOR);
-        } else if (hasState(OBJECT_VALUE)) {
-            listener.startObjectValue();
-            readStringInternal();
-            listener.endObjectValue();
-            setNextState(END_OBJECT, ELEMENT_SEPARATOR);
-        } else if (hasState(ARRAY_VALUE)) {
-            listener.startArrayElement();
-            readStringInternal();
             listener.endArrayElement();
-            setNextState(END_ARRAY, ELEMENT_SEPARATOR);
-        } else {
-            throwUnexpectedStateException();
+            state = ARRAY_NEXT;
         }
     }
 
-    private String readName() throws IOException {
-        readNext();
-        openValueBuffer();
-        while (current != JSON_QUOTATION_MARK && current != -1) {
-            readNext();
+    /**
+     * 询问 listener 是否跳过即将读取的 member value 或 element value，如果需要跳过则直接扫描到 value 之后。
+     */
+    private boolean skipValue(boolean member, int charClass) throws IOException {
+        boolean container = charClass == C_BEGIN_OBJECT || charClass == C_BEGIN_ARRAY;
+        if (member ? !listener.skipObjectValue(container) : !listener.skipArrayElement(container)) {
+            return false;
         }
 
-        return closeValueBuffer();
+        skipValueInternal();
+        return true;
     }
 
-    private void setNextState(int... newState) {
-        this.nextState = 0;
-        for (int s : newState) {
-            this.nextState |= s;
-        }
+    private void beginObject() throws IOException {
+        containers.push(true);
+        listener.startObject();
+        readNext();
+        state = OBJECT_FIRST;
     }
 
-    private boolean hasState(int actual) {
-        return (nextState & actual) != 0;
+    private void beginArray() throws IOException {
+        containers.push(false);
+        listener.startArray();
+        readNext();
+        state = ARRAY_FIRST;
     }
 
-    private void checkState(int... actual) {
-        for (int a : actual) {
-            if (hasState(a)) {
-                return;
-            }
+    private void endContainer() throws IOException {
+        containers.pop();
+        readNext();
+        if (containers.isEmpty()) {
+            state = END_DOCUMENT;
+        } else if (containers.isObject()) {
+            listener.endObjectValue();
+            state = OBJECT_NEXT;
+        } else {
+            listener.endArrayElement();
+            state = ARRAY_NEXT;
         }
-
-        throwUnexpectedStateException();
     }
 
-    private void throwUnexpectedStateException() {
-        StringBuilder s = new StringBuilder("Expected: ");
-        int e = nextState;
-        while (e > 0) {
-            int highestBit = Integer.highestOneBit(e);
-            s.append("\"").append(STATE_HITS.get(highestBit)).append("\"").append(" , ");
-            e -= highestBit;
-        }
-
-        s.append("but got: ").append("\"").append((char) current).append("\".Line: ")
-                .append(line).append(", Column: ").append(column);
-
-        throw new JsonException(s.toString());
+    private JsonException unexpectedStateException() {
+        return new JsonException(EXPECTED[state] + "but got: " + "\"" + (char) current + "\".Line: " +
+                line() + ", Column: " + column());
     }
 }
@@ -4,6 +4,8 @@ import cn.zcn.json.ast.*;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import static cn.zcn.json.ast.JsonCharacters.*;
 
@@ -18,11 +20,27 @@ public class JsonReader2 extends AbstractReader {
         super(reader, listener);
     }
 
+    public JsonReader2(byte[] json, JsonListener listener) {
+        super(json, listener);
+    }
+
+    public JsonReader2(ByteBuffer json, JsonListener listener) {
+        super(json, listener);
+    }
+
+    public JsonReader2(FileChannel json, JsonListener listener) throws IOException {
+        super(json, listener);
+    }
+
+    JsonReader2(JsonSource source, JsonListener listener) {
+        super(source, listener);
+    }
+
     public JsonValue read() {
         try {
             readNextAndSkip();
 
-            if (fill == -1) {
+            if (current == -1) {
                 throw new JsonException("Empty json string.");
             } else if (current == JSON_OBJECT_BEGIN) {
                 readJsonObject();
@@ -33,7 +51,7 @@ public class JsonReader2 extends AbstractReader {
             }
 
             skipWhiteSpace();
-            if (fill != -1) {
+            if (current != -1) {
                 throw new JsonException("Invalid json ending.");
             }
 
@@ -64,6 +82,7 @@ public class JsonReader2 extends AbstractReader {
             case 'n':
                 readNullInternal();
                 break;
+            case '-':
             case '0':
             case '1':
             case '2':
@@ -94,7 +113,6 @@ public class JsonReader2 extends AbstractReader {
 
         do {
             skipWhiteSpace();
-            readNextAndSkip();
 
             listener.startObjectName();
             String name = readName();
@@ -134,11 +152,11 @@ public class JsonReader2 extends AbstractReader {
      * 读取 json member name，读取完后会读取 name 的下一个字符（跳过空白字符）。
      */
     private String readName() throws IOException {
-        openValueBuffer();
-        while (current != JSON_QUOTATION_MARK && current != -1) {
-            readNext();
+        if (current != JSON_QUOTATION_MARK) {
+            throw new UnexpectedException(JSON_QUOTATION_MARK, current, line(), column());
         }
-        String name = closeValueBuffer();
+
+        String name = readNameInternal();
         readNextAndSkip();
         return name;
     }
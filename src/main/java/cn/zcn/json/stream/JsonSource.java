@@ -0,0 +1,221 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.UnexpectedException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * JSON 输入源，负责缓存输入内容、逐个读取字符以及截取 Json Value 的文本。
+ * <p>
+ * 读取字符时不会记录行数与列数，只有在出错时才会根据缓存的内容计算。
+ *
+ * @author zicung
+ */
+abstract class JsonSource {
+
+    /**
+     * member name 驻留表
+     */
+    protected NameTable names = NameTable.SHARED;
+
+    /**
+     * UTF-8 输入源读取 string 的慢速路径中，尚未解码的字节
+     */
+    private byte[] pending;
+
+    private int pendingLength;
+
+    /**
+     * UTF-8 输入源读取 string 的慢速路径中，已解码的字符
+     */
+    private StringBuilder chars;
+
+    /**
+     * 创建的异常是否不记录调用栈，见 {@link JsonValidator}
+     */
+    boolean stackless;
+
+    /**
+     * 读取下一个字符。
+     *
+     * @return 下一个字符，到达输入末尾时返回 {@code -1}
+     */
+    abstract int read() throws IOException;
+
+    /**
+     * 最近一次读取的字符是空白字符，跳过之后连续的空白字符。
+     *
+     * @return 第一个非空白字符，到达输入末尾时返回 {@code -1}
+     */
+    abstract int skipWhiteSpace() throws IOException;
+
+    /**
+     * 最近一次读取的字符是 string 开头的引号，读取 string 并处理转义字符，读取完成后最近一次读取的字符是结尾的引号。
+     */
+    abstract String readString() throws IOException;
+
+    /**
+     * 与 {@link #readString()} 相同，返回 {@link NameTable} 中驻留的 member name
+     */
+    abstract String readName() throws IOException;
+
+    /**
+     * 与 {@link #readString()} 相同，但不会创建 {@code String}
+     */
+    abstract void skipString() throws IOException;
+
+    /**
+     * 将最近一次读取的字符标记为当前 Json Value 的开始位置
+     */
+    abstract void openValue();
+
+    /**
+     * 结束当前 Json Value，返回从开始位置到最近一次读取的字符（不包括）之间的文本
+     */
+    abstract String closeValue();
+
+    /**
+     * 结束当前 Json Value，但不需要获取它的文本
+     */
+    abstract void discardValue();
+
+    /**
+     * 最近一次读取的字符所在的行数
+     */
+    abstract int line();
+
+    /**
+     * 最近一次读取的字符所在的列数
+     */
+    abstract int column();
+
+    /**
+     * 最近一次读取的字符是反斜杠，读取转义字符并返回它表示的字符
+     */
+    protected char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+                    code = (code << 4) | digit;
+                }
+                return (char) code;
+            case -1:
+                throw invalidStringCharacter(-1);
+            default:
+                throw error("Invalid escape character \"" + (char) c + "\"");
+        }
+    }
+
+    /**
+     * 最近一次读取的字符是 string 中的控制字符或者已经到达输入末尾
+     */
+    protected JsonException invalidStringCharacter(int c) {
+        if (c == -1) {
+            return new UnexpectedException(JSON_QUOTATION_MARK, c, line(), column(), !stackless);
+        }
+
+        return error("Invalid control character in string: " + c);
+    }
+
+    /**
+     * 将 string 中已扫描的、不包含转义字符的字节追加到慢速路径的缓存中
+     */
+    protected void appendPending(byte[] src, int offset, int length) {
+        ensurePending(length);
+        System.arraycopy(src, offset, pending, pendingLength, length);
+        pendingLength += length;
+    }
+
+    /**
+     * UTF-8 输入源读取 string 的慢速路径，用于 string 包含转义字符或者跨越了窗口的情况。
+     * 从下一个字节开始逐个读取，直到结尾的引号，之前已扫描的字节通过 {@link #appendPending(byte[], int, int)} 传入。
+     */
+    protected String readUtf8Remaining() throws IOException {
+        if (chars == null) {
+            chars = new StringBuilder();
+        }
+        chars.setLength(0);
+
+        for (; ; ) {
+            int c = read();
+            if (c == JSON_QUOTATION_MARK) {
+                flushPending();
+                return chars.toString();
+            } else if (c == '\\') {
+                //转义字符都是 ASCII，不会截断多字节字符
+                flushPending();
+                chars.append(readEscape());
+            } else if (c < 0x20) {
+                pendingLength = 0;
+                throw invalidStringCharacter(c);
+            } else {
+                ensurePending(1);
+                pending[pendingLength++] = (byte) c;
+            }
+        }
+    }
+
+    private void ensurePending(int length) {
+        if (pending == null) {
+            pending = new byte[Math.max(64, length)];
+        } else if (pending.length < pendingLength + length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+        }
+    }
+
+    private void flushPending() {
+        if (pendingLength > 0) {
+            chars.append(new String(pending, 0, pendingLength, StandardCharsets.UTF_8));
+            pendingLength = 0;
+        }
+    }
+
+    /**
+     * 读取 string 的慢速路径，但不会创建 {@code String}
+     */
+    protected void skipRemaining() throws IOException {
+        for (; ; ) {
+            int c = read();
+            if (c == JSON_QUOTATION_MARK) {
+                return;
+            } else if (c == '\\') {
+                readEscape();
+            } else if (c < 0x20) {
+                throw invalidStringCharacter(c);
+            }
+        }
+    }
+
+    static boolean isWhitespace(int c) {
+        return c == WHITE_SPACE || c == NEW_LINE || c == LINE_FEED || c == TAB;
+    }
+
+    protected JsonException error(String msg) {
+        return new JsonException(msg + ". Line: " + line() + ", Column: " + column(), !stackless);
+    }
+}
@@ -0,0 +1,64 @@
+package cn.zcn.json.stream;
+
+/**
+ * {@link JsonParser} 读取到的 token
+ *
+ * @author zicung
+ */
+public enum JsonToken {
+
+    /**
+     * {
+     */
+    START_OBJECT,
+
+    /**
+     * }
+     */
+    END_OBJECT,
+
+    /**
+     * [
+     */
+    START_ARRAY,
+
+    /**
+     * ]
+     */
+    END_ARRAY,
+
+    /**
+     * member name
+     */
+    NAME,
+
+    /**
+     * Literal {@code String}
+     */
+    STRING,
+
+    /**
+     * Literal {@code Number}
+     */
+    NUMBER,
+
+    /**
+     * Literal {@code true}
+     */
+    TRUE,
+
+    /**
+     * Literal {@code false}
+     */
+    FALSE,
+
+    /**
+     * Literal {@code null}
+     */
+    NULL,
+
+    /**
+     * JSON 读取结束
+     */
+    END_DOCUMENT
+}
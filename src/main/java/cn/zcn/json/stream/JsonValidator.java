@@ -0,0 +1,304 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * 只校验 JSON 语法，不创建 Json Value，也不创建 member name、string 以及 number 的 {@code String}。
+ * <p>
+ * 接受的输入与 {@link JsonReader}、{@link DomReader} 相同。所在的 JSON Object、JSON Array 记录在 {@link ContainerStack} 中，
+ * 通过 {@link #reset(byte[])} 在同一个 byte[] 缓存上复用时，校验合法的输入不会分配内存。
+ * 输入不合法时返回一个 {@link ValidationResult}，输入源内部抛出的异常也不会记录调用栈。
+ *
+ * @author zicung
+ */
+public class JsonValidator extends AbstractReader {
+
+    /**
+     * 读取 member value 或 element 的结果
+     */
+    private static final int VALUE = 0;
+    private static final int OPENED = 1;
+    private static final int CLOSED = 2;
+    private static final int FAILED = 3;
+
+    private final ContainerStack containers = new ContainerStack();
+
+    /**
+     * 最近一次失败的原因
+     */
+    private String failure;
+
+    public JsonValidator(Reader reader) {
+        super(reader, NO_LISTENER);
+        source.stackless = true;
+    }
+
+    public JsonValidator(byte[] json) {
+        super(json, NO_LISTENER);
+        source.stackless = true;
+    }
+
+    public JsonValidator(ByteBuffer json) {
+        super(json, NO_LISTENER);
+        source.stackless = true;
+    }
+
+    JsonValidator(JsonSource source) {
+        super(source, NO_LISTENER);
+        source.stackless = true;
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        source.stackless = true;
+        containers.clear();
+        failure = null;
+    }
+
+    /**
+     * 校验输入，输入合法时返回 {@link ValidationResult#VALID}
+     */
+    public ValidationResult validate() {
+        try {
+            if (doValidate()) {
+                return ValidationResult.VALID;
+            }
+        } catch (JsonException e) {
+            failure = e.getMessage();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+        return new ValidationResult(failure, line(), column());
+    }
+
+    public boolean isValid() {
+        return validate().isValid();
+    }
+
+    private boolean doValidate() throws IOException {
+        readNext();
+        skipWhiteSpace();
+        if (current == JSON_OBJECT_BEGIN) {
+            containers.push(true);
+        } else if (current == JSON_ARRAY_BEGIN) {
+            containers.push(false);
+        } else {
+            return unexpected("\"[\" , \"{\"");
+        }
+
+        boolean first = true;
+        while (true) {
+            int result = containers.isObject() ? members(first) : elements(first);
+            if (result == FAILED) {
+                return false;
+            } else if (result == OPENED) {
+                first = true;
+            } else {
+                containers.pop();
+                if (containers.isEmpty()) {
+                    break;
+                }
+                first = false;
+            }
+        }
+
+        readNext();
+        skipWhiteSpace();
+        return current == -1 || unexpected("\"EOF\"");
+    }
+
+    /**
+     * 校验当前 JSON Object 的 member，直到 '}' 或者一个 JSON Object、JSON Array 类型的 member value
+     */
+    private int members(boolean first) throws IOException {
+        readNext();
+        skipWhiteSpace();
+        if (current == JSON_OBJECT_END) {
+            return CLOSED;
+        }
+        if (!first && !nextElement("\",\" , \"}\"")) {
+            return FAILED;
+        }
+
+        while (true) {
+            if (current != JSON_QUOTATION_MARK) {
+                unexpected("\"Pair Name\"");
+                return FAILED;
+            }
+            skipStringInternal();
+
+            readNext();
+            skipWhiteSpace();
+            if (current != JSON_NAME_SEPARATOR) {
+                unexpected("\":\"");
+                return FAILED;
+            }
+            readNext();
+            skipWhiteSpace();
+
+            int result = value("\"Pair Value\" , \"[\" , \"{\"");
+            if (result != VALUE) {
+                return result;
+            }
+
+            skipWhiteSpace();
+            if (current == JSON_OBJECT_END) {
+                return CLOSED;
+            }
+            if (!nextElement("\",\" , \"}\"")) {
+                return FAILED;
+            }
+        }
+    }
+
+    /**
+     * 校验当前 JSON Array 的 element，直到 ']' 或者一个 JSON Object、JSON Array 类型的 element
+     */
+    private int elements(boolean first) throws IOException {
+        readNext();
+        skipWhiteSpace();
+        if (current == JSON_ARRAY_END) {
+            return CLOSED;
+        }
+        if (!first && !nextElement("\",\" , \"]\"")) {
+            return FAILED;
+        }
+
+        while (true) {
+            int result = value("\"Array Element\" , \"[\" , \"{\"");
+            if (result != VALUE) {
+                return result;
+            }
+
+            skipWhiteSpace();
+            if (current == JSON_ARRAY_END) {
+                return CLOSED;
+            }
+            if (!nextElement("\",\" , \"]\"")) {
+                return FAILED;
+            }
+        }
+    }
+
+    private boolean nextElement(String expected) throws IOException {
+        if (current != JSON_VALUE_SEPARATOR) {
+            return unexpected(expected);
+        }
+        readNext();
+        skipWhiteSpace();
+        return true;
+    }
+
+    /**
+     * 校验一个 member value 或 element。JSON Object、JSON Array 只入栈，其余 value 校验完成后 {@code current} 是 value 之后的第一个字符
+     */
+    private int value(String expected) throws IOException {
+        switch (current) {
+            case JSON_OBJECT_BEGIN:
+                containers.push(true);
+                return OPENED;
+            case JSON_ARRAY_BEGIN:
+                containers.push(false);
+                return OPENED;
+            case JSON_QUOTATION_MARK:
+                skipStringInternal();
+                readNext();
+                return VALUE;
+            case 't':
+                return literal("true");
+            case 'f':
+                return literal("false");
+            case 'n':
+                return literal("null");
+            default:
+                if (!isDigit() && current != '-') {
+                    unexpected(expected);
+                    return FAILED;
+                }
+                return number();
+        }
+    }
+
+    private int literal(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (current != literal.charAt(i)) {
+                fail("Expected \"" + literal.charAt(i) + "\" but got " + describeCurrent());
+                return FAILED;
+            }
+            readNext();
+        }
+        return VALUE;
+    }
+
+    /**
+     * 校验 Number 的语法，见 {@link #scanNumber()}
+     */
+    private int number() throws IOException {
+        if (current == '-') {
+            readNext();
+        }
+
+        if (current == '0') {
+            readNext();
+            if (isDigit()) {
+                fail("Leading zeros are not allowed");
+                return FAILED;
+            }
+        } else if (!digits()) {
+            return FAILED;
+        }
+
+        if (current == '.') {
+            readNext();
+            if (!digits()) {
+                return FAILED;
+            }
+        }
+
+        if (current == 'e' || current == 'E') {
+            readNext();
+            if (current == '-' || current == '+') {
+                readNext();
+            }
+            if (!digits()) {
+                return FAILED;
+            }
+        }
+        return VALUE;
+    }
+
+    /**
+     * 读取至少一个数字
+     */
+    private boolean digits() throws IOException {
+        if (!isDigit()) {
+            return fail("Expected digit but got: " + describeCurrent());
+        }
+        do {
+            readNext();
+        } while (isDigit());
+        return true;
+    }
+
+    /**
+     * 记录期望的 token 与当前字符不匹配，总是返回 {@code false}
+     */
+    private boolean unexpected(String expected) {
+        return fail("Expected: " + expected + " , but got: " + describeCurrent());
+    }
+
+    /**
+     * 记录失败的原因，总是返回 {@code false}
+     */
+    private boolean fail(String reason) {
+        failure = reason + ". Line: " + line() + ", Column: " + column();
+        return false;
+    }
+}
@@ -2,20 +2,55 @@ package cn.zcn.json.stream;
 
 import cn.zcn.json.ast.*;
 
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Iterator;
 
 import static cn.zcn.json.ast.JsonCharacters.*;
 
 /**
  * Json writer
+ * <p>
+ * 输出内容先缓存在内部的缓存中，写满或者 {@link #write(JsonValue)} 结束时整块写入底层的输出流。
+ * 写入 {@link OutputStream}、{@link WritableByteChannel} 时直接编码为 UTF-8 字节。
+ * <p>
+ * 除了写入完整的 Json Value，也可以不创建 Json Value，直接逐个写入 token。根节点写入完成后缓存的内容会写入底层的输出流。
+ *
+ * <pre>
+ * writer.beginObject()
+ *         .name("id").value(1)
+ *         .name("tags").beginArray().value("a").value("b").endArray()
+ *         .endObject();
+ * </pre>
  *
  * @author zicung
  */
-public class JsonWriter {
+public class JsonWriter implements Flushable {
+
+    /**
+     * ASCII 字符对应的转义字符，{@code 0} 表示不需要转义，{@code 'u'} 表示转义为 <code>&#92;u00XX</code>
+     */
+    private static final char[] ESCAPES = new char[128];
 
-    private final Writer out;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    private final JsonOutput out;
 
     /**
      * 当前缩进的深度
@@ -23,41 +58,313 @@ public class JsonWriter {
     private int depth = 0;
 
     /**
-     * 缩进符
+     * 是否压缩 JSON
      */
-    private String indent = DEFAULT_INDENT;
+    private boolean isCompressed = true;
 
     /**
-     * 是否压缩 JSON
+     * 逐个写入 token 时，当前所在的 JSON Object、JSON Array 的嵌套栈
      */
-    private boolean isCompressed = true;
+    private final ContainerStack containers = new ContainerStack();
+
+    /**
+     * 当前容器中是否还没有写入 member 或 element
+     */
+    private boolean isEmpty = true;
+
+    /**
+     * 是否已经写入了 member name，正在等待 member value
+     */
+    private boolean hasName = false;
+
+    /**
+     * 是否已经开始写入根节点
+     */
+    private boolean hasRoot = false;
+
+    /**
+     * 是否将非 ASCII 字符转义为 <code>&#92;uXXXX</code>
+     */
+    private boolean isAsciiOnly = false;
 
     public JsonWriter(Writer out) {
-        this.out = out;
+        this.out = new WriterOutput(out);
+    }
+
+    /**
+     * 以 UTF-8 编码写入 {@code out}
+     */
+    public JsonWriter(OutputStream out) {
+        this.out = new Utf8Output(out);
+    }
+
+    /**
+     * 以 UTF-8 编码写入 {@code out}
+     */
+    public JsonWriter(WritableByteChannel out) {
+        this.out = new Utf8Output(out);
     }
 
     public void setCompressed(boolean compressed) {
         isCompressed = compressed;
     }
 
+    /**
+     * 设置为 {@code true} 时，string 中的非 ASCII 字符都转义为 <code>&#92;uXXXX</code>，输出内容只包含 ASCII 字符
+     */
+    public void setAsciiOnly(boolean asciiOnly) {
+        isAsciiOnly = asciiOnly;
+    }
+
     public void setIndent(String indent) {
-        this.indent = indent;
+        out.setIndent(indent);
     }
 
+    /**
+     * 写入 {@code json}，结束时将缓存的内容写入底层的输出流，但不会 flush 底层的输出流
+     */
     public void write(JsonValue json) {
         try {
-            if (json instanceof JsonPrimitive) {
-                writePrimitive(json.asPrimitive());
-            } else if (json instanceof JsonObject) {
-                writeObject(json.asObject());
-            } else {
-                writeArray(json.asArray());
+            writeValue(json);
+            out.drain();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+    }
+
+    /**
+     * 开始写入 JSON Object
+     */
+    public JsonWriter beginObject() {
+        try {
+            beforeValue();
+            out.write(JSON_OBJECT_BEGIN);
+            enter(true);
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 结束当前的 JSON Object
+     */
+    public JsonWriter endObject() {
+        try {
+            exit(true);
+            out.write(JSON_OBJECT_END);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 开始写入 JSON Array
+     */
+    public JsonWriter beginArray() {
+        try {
+            beforeValue();
+            out.write(JSON_ARRAY_BEGIN);
+            enter(false);
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 结束当前的 JSON Array
+     */
+    public JsonWriter endArray() {
+        try {
+            exit(false);
+            out.write(JSON_ARRAY_END);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 写入 member name，之后必须写入对应的 member value
+     */
+    public JsonWriter name(CharSequence name) {
+        if (containers.isEmpty() || !containers.isObject() || hasName) {
+            throw new JsonException("Unexpected pair name: " + name + ".");
+        }
+
+        try {
+            beforeElement();
+            writeString(name);
+            writePairSeparator();
+            hasName = true;
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    public JsonWriter value(CharSequence value) {
+        if (value == null) {
+            return nullValue();
+        }
+
+        try {
+            beforeValue();
+            writeString(value);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        try {
+            beforeValue();
+            out.writeLong(value);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 写入 {@code double}，{@code NaN} 以及无穷大写入为 {@code null}
+     */
+    public JsonWriter value(double value) {
+        try {
+            beforeValue();
+            writeDouble(value);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        try {
+            beforeValue();
+            writeBool(value);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        try {
+            beforeValue();
+            writeNull();
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 在当前位置写入一个完整的 Json Value
+     */
+    public JsonWriter value(JsonValue value) {
+        try {
+            beforeValue();
+            writeValue(value);
+            afterValue();
+        } catch (IOException e) {
+            throw new JsonException("Failed to write json.", e);
+        }
+        return this;
+    }
+
+    /**
+     * 写入 member value、element value 或者根节点之前，校验当前状态并写入分隔符
+     */
+    private void beforeValue() throws IOException {
+        if (containers.isEmpty()) {
+            if (hasRoot) {
+                throw new JsonException("Json root has already been written.");
+            }
+            hasRoot = true;
+        } else if (containers.isObject()) {
+            if (!hasName) {
+                throw new JsonException("Expected: \"Pair Name\" but got: value.");
             }
+            hasName = false;
+        } else {
+            beforeElement();
+        }
+    }
+
+    /**
+     * 写入 member 或 element 之前的 ',' 以及换行
+     */
+    private void beforeElement() throws IOException {
+        if (isEmpty) {
+            isEmpty = false;
+            writeNewLine();
+        } else {
+            writeElementSeparator();
+        }
+    }
+
+    /**
+     * 根节点写入完成后，将缓存的内容写入底层的输出流
+     */
+    private void afterValue() throws IOException {
+        if (containers.isEmpty()) {
+            out.drain();
+        }
+    }
+
+    private void enter(boolean isObject) {
+        containers.push(isObject);
+        increaseDepth();
+        isEmpty = true;
+    }
+
+    private void exit(boolean isObject) throws IOException {
+        if (containers.isEmpty() || containers.isObject() != isObject || hasName) {
+            throw new JsonException("Unexpected end of " + (isObject ? "object." : "array."));
+        }
+
+        containers.pop();
+        decreaseDepth();
+        if (!isEmpty) {
+            writeNewLine();
+        }
+        //外层容器中至少已经写入了当前容器
+        isEmpty = false;
+    }
+
+    /**
+     * 将缓存的内容写入底层的输出流，并 flush 底层的输出流
+     */
+    @Override
+    public void flush() {
+        try {
+            out.flush();
         } catch (IOException e) {
             throw new JsonException("Failed to write json.", e);
         }
     }
 
+    private void writeValue(JsonValue json) throws IOException {
+        if (json instanceof JsonPrimitive) {
+            writePrimitive(json.asPrimitive());
+        } else if (json instanceof JsonObject) {
+            writeObject(json.asObject());
+        } else {
+            writeArray(json.asArray());
+        }
+    }
+
     private void writePrimitive(JsonPrimitive json) throws IOException {
         if (json.isNull()) {
             writeNull();
@@ -76,7 +383,6 @@ public class JsonWriter {
         if (json.size() > 0) {
             increaseDepth();
             writeNewLine();
-            writeIndent();
 
             Iterator<String> iter = json.keySet().iterator();
             while (iter.hasNext()) {
@@ -84,7 +390,7 @@ public class JsonWriter {
                 writeString(name);
                 writePairSeparator();
                 JsonValue value = json.get(name);
-                write(value);
+                writeValue(value);
 
                 if (iter.hasNext()) {
                     writeElementSeparator();
@@ -93,7 +399,6 @@ public class JsonWriter {
 
             decreaseDepth();
             writeNewLine();
-            writeIndent();
         }
 
         out.write(JSON_OBJECT_END);
@@ -105,19 +410,34 @@ public class JsonWriter {
         if (json.size() > 0) {
             increaseDepth();
             writeNewLine();
-            writeIndent();
 
-            Iterator<JsonValue> iter = json.iterator();
-            while (iter.hasNext()) {
-                write(iter.next());
-                if (iter.hasNext()) {
-                    writeElementSeparator();
+            if (json.isLongArray()) {
+                //以 long[]、double[] 存储的元素直接写入，不需要为每个元素创建 JsonPrimitive
+                for (int i = 0, size = json.size(); i < size; i++) {
+                    if (i > 0) {
+                        writeElementSeparator();
+                    }
+                    out.writeLong(json.getLong(i));
+                }
+            } else if (json.isDoubleArray()) {
+                for (int i = 0, size = json.size(); i < size; i++) {
+                    if (i > 0) {
+                        writeElementSeparator();
+                    }
+                    writeDouble(json.getDouble(i));
+                }
+            } else {
+                Iterator<JsonValue> iter = json.iterator();
+                while (iter.hasNext()) {
+                    writeValue(iter.next());
+                    if (iter.hasNext()) {
+                        writeElementSeparator();
+                    }
                 }
             }
 
             decreaseDepth();
             writeNewLine();
-            writeIndent();
         }
 
         out.write(JSON_ARRAY_END);
@@ -127,25 +447,72 @@ public class JsonWriter {
         out.write(JSON_NULL);
     }
 
-    private void writeString(String value) throws IOException {
+    /**
+     * 写入 string 并转义其中的字符。不需要转义的连续字符整段写入，只有需要转义的字符才会单独处理。
+     */
+    private void writeString(CharSequence value) throws IOException {
         out.write(JSON_QUOTATION_MARK);
-        out.write(value);
+
+        int start = 0;
+        for (int i = 0, len = value.length(); i < len; i++) {
+            char c = value.charAt(i);
+            char escape;
+            if (c < 0x80) {
+                if ((escape = ESCAPES[c]) == 0) {
+                    continue;
+                }
+            } else if (isAsciiOnly) {
+                escape = 'u';
+            } else {
+                continue;
+            }
+
+            if (i > start) {
+                out.write(value, start, i);
+            }
+            writeEscape(c, escape);
+            start = i + 1;
+        }
+
+        out.write(value, start, value.length());
         out.write(JSON_QUOTATION_MARK);
     }
 
-    private void writeBool(Boolean value) throws IOException {
-        out.write(value.toString());
+    private void writeEscape(char c, char escape) throws IOException {
+        out.write('\\');
+        out.write(escape);
+        if (escape == 'u') {
+            out.write(HEX_DIGITS[c >>> 12]);
+            out.write(HEX_DIGITS[c >>> 8 & 0xF]);
+            out.write(HEX_DIGITS[c >>> 4 & 0xF]);
+            out.write(HEX_DIGITS[c & 0xF]);
+        }
+    }
+
+    private void writeBool(boolean value) throws IOException {
+        out.write(value ? "true" : "false");
+    }
+
+    private void writeDouble(double value) throws IOException {
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            out.write(JSON_NULL);
+        } else {
+            out.writeDouble(value);
+        }
     }
 
     private void writeNumber(Number number) throws IOException {
         if (number instanceof Double) {
-            if (((Double) number).isInfinite() || ((Double) number).isNaN()) {
-                out.write(JSON_NULL);
-            }
+            writeDouble(number.doubleValue());
         } else if (number instanceof Float) {
-            if (((Float) number).isInfinite() || ((Float) number).isNaN()) {
+            float value = number.floatValue();
+            if (Float.isInfinite(value) || Float.isNaN(value)) {
                 out.write(JSON_NULL);
+            } else {
+                out.writeFloat(value);
             }
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            out.writeLong(number.longValue());
         } else {
             out.write(number.toString());
         }
@@ -163,21 +530,14 @@ public class JsonWriter {
     private void writeElementSeparator() throws IOException {
         out.write(JSON_VALUE_SEPARATOR);
         writeNewLine();
-        writeIndent();
     }
 
+    /**
+     * 写入换行以及当前深度的缩进
+     */
     private void writeNewLine() throws IOException {
         if (!isCompressed) {
-            out.write(LINE_FEED);
-            out.write(NEW_LINE);
-        }
-    }
-
-    private void writeIndent() throws IOException {
-        if (!isCompressed) {
-            for (int i = 0; i < depth; i++) {
-                out.write(indent);
-            }
+            out.writeNewLine(depth);
         }
     }
 
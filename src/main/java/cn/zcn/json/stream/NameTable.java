@@ -0,0 +1,181 @@
+package cn.zcn.json.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * member name 的字符串驻留表。
+ * <p>
+ * 直接使用输入缓存中的字符区间计算哈希并查找，命中时不会创建新的 {@code String}，重复出现的 member name 会得到同一个 {@code String} 实例。
+ * 驻留表使用开放寻址，通过 CAS 插入，可以被所有解析线程无锁地共享。容量固定，表满或 member name 过长时直接创建 {@code String}，不会驻留。
+ *
+ * @author zicung
+ */
+final class NameTable {
+
+    /**
+     * 所有 reader 共享的驻留表
+     */
+    static final NameTable SHARED = new NameTable(4096);
+
+    /**
+     * 可以驻留的 member name 的最大长度
+     */
+    private static final int MAX_NAME_LENGTH = 64;
+
+    /**
+     * 查找时最多探测的槽位数量
+     */
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<String> names;
+
+    private final int mask;
+
+    /**
+     * @param capacity 槽位数量，必须是 2 的幂
+     */
+    NameTable(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        this.names = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 获取 {@code buf} 中指定区间的字符对应的 member name
+     */
+    String intern(char[] buf, int offset, int length) {
+        if (length > MAX_NAME_LENGTH) {
+            return new String(buf, offset, length);
+        }
+
+        //与 String#hashCode 的计算方式保持一致
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + buf[i];
+        }
+
+        String created = null;
+        int index = indexFor(hash);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            String name = names.get(index);
+            if (name == null) {
+                if (created == null) {
+                    created = new String(buf, offset, length);
+                }
+                if (names.compareAndSet(index, null, created)) {
+                    return created;
+                }
+                name = names.get(index);
+            }
+
+            if (name.hashCode() == hash && matches(name, buf, offset, length)) {
+                return name;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return created != null ? created : new String(buf, offset, length);
+    }
+
+    /**
+     * 获取 {@code buf} 中指定区间的 UTF-8 字节对应的 member name
+     */
+    String intern(byte[] buf, int offset, int length) {
+        if (length > MAX_NAME_LENGTH) {
+            return new String(buf, offset, length, StandardCharsets.UTF_8);
+        }
+
+        //ASCII 字节与对应的 char 相等，可以直接计算 String#hashCode；包含非 ASCII 字节时先解码再驻留
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (buf[i] < 0) {
+                return intern(new String(buf, offset, length, StandardCharsets.UTF_8));
+            }
+            hash = 31 * hash + buf[i];
+        }
+
+        String created = null;
+        int index = indexFor(hash);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            String name = names.get(index);
+            if (name == null) {
+                if (created == null) {
+                    created = new String(buf, offset, length, StandardCharsets.ISO_8859_1);
+                }
+                if (names.compareAndSet(index, null, created)) {
+                    return created;
+                }
+                name = names.get(index);
+            }
+
+            if (name.hashCode() == hash && matches(name, buf, offset, length)) {
+                return name;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return created != null ? created : new String(buf, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 获取与 {@code value} 相等的 member name
+     */
+    String intern(String value) {
+        if (value.length() > MAX_NAME_LENGTH) {
+            return value;
+        }
+
+        int hash = value.hashCode();
+        int index = indexFor(hash);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            String name = names.get(index);
+            if (name == null) {
+                if (names.compareAndSet(index, null, value)) {
+                    return value;
+                }
+                name = names.get(index);
+            }
+
+            if (name.hashCode() == hash && name.equals(value)) {
+                return name;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return value;
+    }
+
+    private int indexFor(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String name, char[] buf, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != buf[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String name, byte[] buf, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != buf[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
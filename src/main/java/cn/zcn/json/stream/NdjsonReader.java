@@ -0,0 +1,277 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static cn.zcn.json.ast.JsonCharacters.NEW_LINE;
+
+/**
+ * 并行读取 NDJSON（JSON Lines），即每一行是一个 JSON 的输入。
+ * <p>
+ * 输入按行边界切分为多个分块，分块在 {@link ForkJoinPool} 中并行解析。
+ * 文件通过 {@link FileChannel#map} 按分块映射到内存中，不会将整个文件加载到堆中。空行会被忽略。
+ *
+ * <pre>
+ * try (Stream&lt;JsonValue&gt; values = new NdjsonReader(path).stream()) {
+ *     values.filter(...).forEach(...);
+ * }
+ * </pre>
+ *
+ * @author zicung
+ */
+public class NdjsonReader {
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final byte[] bytes;
+
+    private final Path path;
+
+    private final ForkJoinPool pool;
+
+    public NdjsonReader(byte[] json) {
+        this(json, ForkJoinPool.commonPool());
+    }
+
+    public NdjsonReader(byte[] json, ForkJoinPool pool) {
+        this.bytes = json;
+        this.path = null;
+        this.pool = pool;
+    }
+
+    public NdjsonReader(Path path) {
+        this(path, ForkJoinPool.commonPool());
+    }
+
+    public NdjsonReader(Path path, ForkJoinPool pool) {
+        this.bytes = null;
+        this.path = path;
+        this.pool = pool;
+    }
+
+    /**
+     * 按照输入中的顺序并行读取所有 JSON。读取文件时，使用完毕后需要关闭返回的 {@code Stream}。
+     * <p>
+     * 返回的是并行 {@code Stream}，终止操作在调用线程所在的 {@link ForkJoinPool} 中执行，
+     * 不在任何 {@code ForkJoinPool} 中时使用 {@link ForkJoinPool#commonPool()}。
+     * 不关心顺序时可以使用 {@link Stream#unordered()}。
+     */
+    public Stream<JsonValue> stream() {
+        Chunks chunks = openChunks();
+        return IntStream.range(0, chunks.starts.length - 1)
+                .parallel()
+                .mapToObj(chunks::read)
+                .flatMap(List::stream)
+                .onClose(chunks::close);
+    }
+
+    /**
+     * 按照输入中的顺序将所有 JSON 交给 {@code sink}，{@code sink} 不会被并发调用
+     */
+    public void forEach(Consumer<? super JsonValue> sink) {
+        run(values -> values.forEachOrdered(sink));
+    }
+
+    /**
+     * 将所有 JSON 交给 {@code sink}，不保证顺序，{@code sink} 会在多个线程中被并发调用
+     */
+    public void forEachUnordered(Consumer<? super JsonValue> sink) {
+        run(values -> values.unordered().forEach(sink));
+    }
+
+    private void run(Consumer<Stream<JsonValue>> action) {
+        try (Stream<JsonValue> values = stream()) {
+            pool.submit(() -> action.accept(values)).join();
+        }
+    }
+
+    private Chunks openChunks() {
+        if (bytes != null) {
+            return new Chunks(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), null);
+        }
+
+        try {
+            return new Chunks(null, FileChannel.open(path, StandardOpenOption.READ));
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+
+    /**
+     * 输入按行边界切分后的分块
+     */
+    private final class Chunks {
+
+        private final ByteBuffer buffer;
+
+        private final FileChannel channel;
+
+        private final long length;
+
+        /**
+         * 每个分块的开始位置，最后一个元素为输入的长度
+         */
+        private final long[] starts;
+
+        private Chunks(ByteBuffer buffer, FileChannel channel) {
+            this.buffer = buffer;
+            this.channel = channel;
+
+            try {
+                this.length = buffer != null ? buffer.limit() : channel.size();
+                this.starts = split();
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e instanceof RuntimeException ? (RuntimeException) e : new JsonException("Failed to read json.", e);
+            }
+        }
+
+        private long[] split() throws IOException {
+            long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, length / (pool.getParallelism() * 4L)));
+            List<Long> starts = new ArrayList<>();
+            long start = 0;
+            while (start < length) {
+                starts.add(start);
+                start = start + chunkSize >= length ? length : nextLine(start + chunkSize);
+            }
+            starts.add(length);
+            return starts.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * 查找 {@code pos} 之后的第一个换行符，返回下一行的开始位置
+         */
+        private long nextLine(long pos) throws IOException {
+            if (buffer != null) {
+                int end = indexOfNewLine(buffer, (int) pos, (int) length);
+                return end < length ? end + 1 : length;
+            }
+
+            ByteBuffer block = ByteBuffer.allocate(8192);
+            while (pos < length) {
+                ((Buffer) block).clear();
+                int n = channel.read(block, pos);
+                for (int i = 0; i < n; i++) {
+                    if (block.get(i) == NEW_LINE) {
+                        return pos + i + 1;
+                    }
+                }
+                pos += Math.max(n, 0);
+            }
+            return length;
+        }
+
+        /**
+         * 读取第 {@code index} 个分块中的所有 JSON
+         */
+        private List<JsonValue> read(int index) {
+            long start = starts[index];
+            long end = starts[index + 1];
+            if (end - start > Integer.MAX_VALUE) {
+                throw new JsonException("Json line is too long. Offset: " + start);
+            }
+
+            if (buffer != null) {
+                return readLines(buffer, (int) start, (int) end, 0);
+            }
+
+            try {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                return readLines(mapped, 0, (int) (end - start), start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取 {@code buffer} 中 [start, end) 范围内的每一行
+     *
+     * @param base {@code buffer} 在输入中的偏移量，用于错误信息
+     */
+    private static List<JsonValue> readLines(ByteBuffer buffer, int start, int end, long base) {
+        List<JsonValue> values = new ArrayList<>();
+        ByteBuffer words = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        //同一个分块中的所有行复用同一个 reader
+        DomReader reader = new DomReader(buffer);
+        while (start < end) {
+            int lineEnd = indexOfNewLine(words, start, end);
+            if (!isBlank(buffer, start, lineEnd)) {
+                values.add(readLine(reader, buffer, start, lineEnd, base));
+            }
+            start = lineEnd + 1;
+        }
+        return values;
+    }
+
+    private static JsonValue readLine(DomReader reader, ByteBuffer buffer, int start, int end, long base) {
+        try {
+            if (buffer.hasArray()) {
+                reader.reset(buffer.array(), buffer.arrayOffset() + start, end - start);
+            } else {
+                ByteBuffer line = buffer.duplicate();
+                ((Buffer) line).limit(end).position(start);
+                reader.reset(line);
+            }
+            return reader.read();
+        } catch (JsonException e) {
+            throw new JsonException("Failed to read json line. Offset: " + (base + start) + ", " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查找 [start, end) 范围内的第一个换行符，每次比较 8 个字节，见 {@link Swar}。{@code words} 的字节顺序必须为 little-endian
+     *
+     * @return 换行符的索引，没有找到时返回 {@code end}
+     */
+    private static int indexOfNewLine(ByteBuffer words, int start, int end) {
+        while (start + 8 <= end) {
+            long mask = Swar.newLines(words.getLong(start));
+            if (mask != 0) {
+                return start + Swar.firstByte(mask);
+            }
+            start += 8;
+        }
+
+        while (start < end && words.get(start) != NEW_LINE) {
+            start++;
+        }
+        return start;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!JsonSource.isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,144 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+
+/**
+ * 读取 Number，语法为 {@code -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?}。读取字符的方式与出错时的异常由子类提供。
+ * <p>
+ * 整数直接累加到 {@code long} 中，小数与带指数的数字累加为尾数与十进制指数，通过 {@link Numbers#toDouble(long, int)} 转换，不会创建 {@code String}。
+ *
+ * @author zicung
+ */
+abstract class NumberScanner {
+
+    /**
+     * {@link #scan()} 返回的结果类型
+     */
+    static final int LONG_NUMBER = 0;
+    static final int DOUBLE_NUMBER = 1;
+    static final int TEXT_NUMBER = 2;
+
+    /**
+     * {@link #scan()} 的结果
+     */
+    long longValue;
+    double doubleValue;
+
+    /**
+     * 当前字符，没有更多字符时返回 {@code -1}
+     */
+    abstract int current();
+
+    /**
+     * 前进到下一个字符
+     */
+    abstract void next();
+
+    /**
+     * {@code 0} 之后紧跟着数字时抛出的异常
+     */
+    abstract JsonException leadingZero();
+
+    /**
+     * 当前字符应该是数字时抛出的异常
+     */
+    abstract JsonException expectedDigit();
+
+    /**
+     * 从当前字符开始读取 Number，结束时当前字符是 Number 之后的第一个字符。
+     *
+     * @return {@link #LONG_NUMBER}、{@link #DOUBLE_NUMBER} 时结果存储在 {@link #longValue}、{@link #doubleValue} 中；
+     * 尾数超出 {@code long} 的范围，或者无法转换为有限的 {@code double} 时返回 {@link #TEXT_NUMBER}，需要使用文本
+     */
+    final int scan() {
+        long mantissa = 0;
+        int exponent = 0;
+        boolean overflow = false;
+        boolean isDecimal = false;
+
+        boolean negative = current() == '-';
+        if (negative) {
+            next();
+        }
+        expectDigit();
+
+        if (current() == '0') {
+            next();
+            if (isDigit(current())) {
+                throw leadingZero();
+            }
+        }
+
+        int c;
+        while (isDigit(c = current())) {
+            int digit = c - '0';
+            if (mantissa > (Long.MAX_VALUE - digit) / 10) {
+                overflow = true;
+            } else if (!overflow) {
+                mantissa = mantissa * 10 + digit;
+            }
+            next();
+        }
+
+        if (current() == '.') {
+            isDecimal = true;
+            next();
+            expectDigit();
+
+            while (isDigit(c = current())) {
+                int digit = c - '0';
+                if (mantissa > (Long.MAX_VALUE - digit) / 10) {
+                    overflow = true;
+                } else if (!overflow) {
+                    mantissa = mantissa * 10 + digit;
+                    exponent--;
+                }
+                next();
+            }
+        }
+
+        if (current() == 'e' || current() == 'E') {
+            isDecimal = true;
+            next();
+            boolean negativeExponent = current() == '-';
+            if (negativeExponent || current() == '+') {
+                next();
+            }
+            expectDigit();
+
+            int value = 0;
+            while (isDigit(c = current())) {
+                //超出范围的指数的结果总是 0 或无穷大，不需要继续累加
+                if (value < 100_000) {
+                    value = value * 10 + c - '0';
+                }
+                next();
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (!overflow) {
+            if (!isDecimal) {
+                longValue = negative ? -mantissa : mantissa;
+                return LONG_NUMBER;
+            }
+
+            double value = Numbers.toDouble(mantissa, exponent);
+            if (!Double.isNaN(value)) {
+                doubleValue = negative ? -value : value;
+                return DOUBLE_NUMBER;
+            }
+        }
+        return TEXT_NUMBER;
+    }
+
+    private void expectDigit() {
+        if (!isDigit(current())) {
+            throw expectedDigit();
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,227 @@
+package cn.zcn.json.stream;
+
+import java.math.BigInteger;
+
+/**
+ * 数字转换的工具方法
+ *
+ * @author zicung
+ */
+final class Numbers {
+
+    /**
+     * 可以被 {@code double} 精确表示的最大尾数，即 2^53
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * 可以被 {@code double} 精确表示的 10 的幂
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * 写入一个 {@code long} 最多需要的字节数
+     */
+    static final int MAX_LONG_LENGTH = 20;
+
+    /**
+     * 小于该十进制指数时，任意 19 位尾数的结果都会舍入为 0
+     */
+    private static final int MIN_POWER = -342;
+
+    /**
+     * 大于该十进制指数时，任意非 0 尾数的结果都是无穷大
+     */
+    private static final int MAX_POWER = 308;
+
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    /**
+     * 5^q（MIN_POWER <= q <= MAX_POWER）的 128 位近似值，最高位为 1。
+     * {@code POWERS_OF_FIVE[2 * (q - MIN_POWER)]} 为高 64 位，{@code POWERS_OF_FIVE[2 * (q - MIN_POWER) + 1]} 为低 64 位。
+     * q 为负数时向上取整，否则向下取整。
+     */
+    private static final long[] POWERS_OF_FIVE = new long[2 * (MAX_POWER - MIN_POWER + 1)];
+
+    static {
+        BigInteger five = BigInteger.valueOf(5);
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger power;
+            if (q < 0) {
+                BigInteger divisor = five.pow(-q);
+                int z = divisor.bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                power = BigInteger.ONE.shiftLeft(b).divide(divisor).add(BigInteger.ONE);
+            } else {
+                power = five.pow(q);
+            }
+
+            int shift = power.bitLength() - 128;
+            power = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+
+            POWERS_OF_FIVE[2 * (q - MIN_POWER)] = power.shiftRight(64).longValue();
+            POWERS_OF_FIVE[2 * (q - MIN_POWER) + 1] = power.longValue();
+        }
+    }
+
+    private Numbers() {
+    }
+
+    /**
+     * 将 {@code mantissa * 10^exponent} 正确舍入为 {@code double}。
+     * <p>
+     * 尾数与 10 的幂都可以被 {@code double} 精确表示时，一次乘法或除法即可得到结果（Clinger 快速路径）。
+     * 否则使用 Eisel-Lemire 算法：用 5^q 的 128 位近似值与尾数相乘，乘积的高位足以确定舍入结果时直接构造 {@code double}。
+     *
+     * @param mantissa 非负的尾数，不能是截断后的值
+     * @return 结果，无法确定舍入结果、结果为无穷大或者非 0 的尾数舍入为 0 时返回 {@code NaN}，此时需要使用文本解析
+     */
+    static double toDouble(long mantissa, int exponent) {
+        if (mantissa == 0) {
+            return 0;
+        }
+
+        if (mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            return exponent < 0 ? mantissa / EXACT_POWERS_OF_TEN[-exponent] : mantissa * EXACT_POWERS_OF_TEN[exponent];
+        }
+
+        if (exponent < MIN_POWER || exponent > MAX_POWER) {
+            return Double.NaN;
+        }
+
+        return eiselLemire(mantissa, exponent);
+    }
+
+    private static double eiselLemire(long w, int q) {
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        int index = 2 * (q - MIN_POWER);
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+
+        //高位中决定舍入的 9 位全部为 1 时，低位的进位可能影响结果，需要再乘以 5^q 的低 64 位
+        if ((high & 0x1FF) == 0x1FF) {
+            long second = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            long sum = low + second;
+            if (Long.compareUnsigned(sum, low) < 0) {
+                high++;
+            }
+            low = sum;
+
+            if (low == -1L && (q < -27 || q > 55)) {
+                return Double.NaN;
+            }
+        }
+
+        int upperBit = (int) (high >>> 63);
+        long m = high >>> (upperBit + 9);
+        //floor(log2(10^q)) + 63 + upperBit - lz，再加上指数偏移 1023
+        int power2 = (int) ((217706L * q) >> 16) + 63 + upperBit - lz + 1023;
+
+        if (power2 <= 0) {
+            //非正规数
+            if (-power2 + 1 >= 64) {
+                return Double.NaN;
+            }
+
+            m >>>= -power2 + 1;
+            m += m & 1;
+            m >>>= 1;
+            if (m == 0) {
+                return Double.NaN;
+            }
+            power2 = m < (1L << 52) ? 0 : 1;
+            return Double.longBitsToDouble((m & ~(1L << 52)) | (long) power2 << 52);
+        }
+
+        //恰好位于两个 double 的中间时，向偶数舍入
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (m & 3) == 1
+                && (m << (upperBit + 9)) == high) {
+            m &= ~1L;
+        }
+
+        m += m & 1;
+        m >>>= 1;
+        if (m >= (2L << 52)) {
+            m = 1L << 52;
+            power2++;
+        }
+
+        if (power2 >= 0x7FF) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble((m & ~(1L << 52)) | (long) power2 << 52);
+    }
+
+    /**
+     * 128 位有符号乘积的高 64 位，与 Java 9 的 {@code Math.multiplyHigh} 相同
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & MASK_32;
+        long y1 = y >> 32;
+        long y2 = y & MASK_32;
+
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & MASK_32;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /**
+     * 128 位无符号乘积的高 64 位
+     */
+    static long unsignedMultiplyHigh(long x, long y) {
+        return multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    /**
+     * 将 {@code value} 以 ASCII 写入 {@code buf}，调用方需要保证至少有 {@link #MAX_LONG_LENGTH} 个字节的空间
+     *
+     * @return 写入结束后的位置
+     */
+    static int writeLong(long value, byte[] buf, int pos) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                //-9223372036854775808 无法取反
+                buf[pos++] = '-';
+                buf[pos++] = '9';
+                return writeDigits(223372036854775808L, 18, buf, pos);
+            }
+            buf[pos++] = '-';
+            value = -value;
+        }
+        return writeDigits(value, digits(value), buf, pos);
+    }
+
+    /**
+     * 将非负数 {@code value} 的 {@code length} 位数字写入 {@code buf}，不足时在前面补 0
+     *
+     * @return 写入结束后的位置
+     */
+    static int writeDigits(long value, int length, byte[] buf, int pos) {
+        int end = pos + length;
+        for (int i = end - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * 非负数 {@code value} 的十进制位数，{@code 0} 为 1 位
+     */
+    static int digits(long value) {
+        int length = 1;
+        for (long p = 10; length < 19 && value >= p; p *= 10) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,361 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonArray;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonValue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * 并行读取根节点是一个很大的 JSON Array 的输入，e.g. {@code [{...}, {...}, ...]}。
+ * <p>
+ * 读取分为以下几步，除第 2 步外均在 {@link ForkJoinPool} 中并行执行：
+ * <ol>
+ *     <li>将 JSON Array 的内容切分为多个分段，每个分段统计未转义的引号数量，
+ *     并分别假设分段的开头在 string 之外、之内，统计括号嵌套深度的变化</li>
+ *     <li>依次累加每个分段的统计结果，得到每个分段的开头是否在 string 之内以及嵌套深度</li>
+ *     <li>每个分段从开头查找第一个属于根节点的 ','，作为切分点</li>
+ *     <li>切分点之间的 element 序列分别解析为 JSON Array，再按顺序拼接</li>
+ * </ol>
+ * 输入较小、根节点不是 JSON Array，或者任意一步的结果不合法时，退回到顺序解析，由顺序解析给出准确的错误信息。
+ *
+ * @author zicung
+ */
+public class ParallelArrayReader {
+
+    /**
+     * 分段的最小长度，输入小于两个分段时直接顺序解析
+     */
+    static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final byte[] bytes;
+
+    private final Path path;
+
+    private final ForkJoinPool pool;
+
+    private final int minSegmentSize;
+
+    public ParallelArrayReader(byte[] json) {
+        this(json, ForkJoinPool.commonPool());
+    }
+
+    public ParallelArrayReader(byte[] json, ForkJoinPool pool) {
+        this(json, null, pool, MIN_SEGMENT_SIZE);
+    }
+
+    public ParallelArrayReader(Path path) {
+        this(path, ForkJoinPool.commonPool());
+    }
+
+    public ParallelArrayReader(Path path, ForkJoinPool pool) {
+        this(null, path, pool, MIN_SEGMENT_SIZE);
+    }
+
+    ParallelArrayReader(byte[] bytes, Path path, ForkJoinPool pool, int minSegmentSize) {
+        this.bytes = bytes;
+        this.path = path;
+        this.pool = pool;
+        this.minSegmentSize = minSegmentSize;
+    }
+
+    public JsonValue read() {
+        try (Input input = open()) {
+            JsonValue value = readParallel(input);
+            return value != null ? value : input.readSequential();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+
+    private Input open() throws IOException {
+        return bytes != null ? new Input(bytes) : new Input(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * @return 无法并行解析时返回 {@code null}
+     */
+    private JsonValue readParallel(Input input) throws IOException {
+        long begin = 0;
+        long end = input.length;
+        while (begin < end && JsonSource.isWhitespace(input.byteAt(begin))) {
+            begin++;
+        }
+        while (end > begin && JsonSource.isWhitespace(input.byteAt(end - 1))) {
+            end--;
+        }
+
+        if (end - begin < 2L * minSegmentSize + 2 || input.byteAt(begin) != JSON_ARRAY_BEGIN || input.byteAt(end - 1) != JSON_ARRAY_END) {
+            return null;
+        }
+
+        //JSON Array 的内容，不包含外层的 '['、']'
+        long start = begin + 1;
+        long limit = end - 1;
+        long segmentSize = Math.min(MAX_SEGMENT_SIZE, Math.max(minSegmentSize, (limit - start) / (pool.getParallelism() * 4L)));
+        int count = (int) ((limit - start + segmentSize - 1) / segmentSize);
+
+        Segment[] segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(start + i * segmentSize, Math.min(limit, start + (i + 1) * segmentSize));
+        }
+
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> segments[i].scan(input))).join();
+
+            //累加每个分段的结果，分段开头的嵌套深度以 JSON Array 的内容为 1
+            boolean inString = false;
+            int depth = 1;
+            for (Segment segment : segments) {
+                segment.inString = inString;
+                segment.depth = depth;
+                depth += inString ? segment.depthInString : segment.depthOutOfString;
+                inString ^= segment.oddQuotes;
+                if (depth < 1) {
+                    return null;
+                }
+            }
+
+            if (inString || depth != 1) {
+                return null;
+            }
+
+            pool.submit(() -> IntStream.range(1, count).parallel().forEach(i -> segments[i].split(input))).join();
+
+            //每个区间为 [上一个切分点之后, 下一个切分点)
+            long[] bounds = new long[count + 1];
+            int ranges = 0;
+            bounds[ranges++] = start - 1;
+            for (int i = 1; i < count; i++) {
+                if (segments[i].split >= 0) {
+                    bounds[ranges++] = segments[i].split;
+                }
+            }
+            bounds[ranges] = limit;
+
+            int rangeCount = ranges;
+            JsonValue[] arrays = pool.submit(() -> IntStream.range(0, rangeCount).parallel()
+                    .mapToObj(i -> input.readElements(bounds[i] + 1, bounds[i + 1]))
+                    .toArray(JsonValue[]::new)).join();
+
+            JsonArray result = arrays[0].asArray();
+            for (int i = 1; i < arrays.length; i++) {
+                result.addAll(arrays[i].asArray());
+            }
+            return result;
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * JSON Array 内容中的一个分段
+     */
+    private static final class Segment {
+
+        final long start;
+
+        final long end;
+
+        /**
+         * 未转义的引号数量是否为奇数
+         */
+        boolean oddQuotes;
+
+        /**
+         * 假设开头在 string 之外时，嵌套深度的变化
+         */
+        int depthOutOfString;
+
+        /**
+         * 假设开头在 string 之内时，嵌套深度的变化
+         */
+        int depthInString;
+
+        /**
+         * 开头是否在 string 之内
+         */
+        boolean inString;
+
+        /**
+         * 开头的嵌套深度
+         */
+        int depth;
+
+        /**
+         * 分段中第一个属于根节点的 ',' 的位置，没有时为 {@code -1}
+         */
+        long split = -1;
+
+        Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * 统计引号数量以及嵌套深度的变化。无论是否在 string 之内，反斜杠之后的字节都不会被当作引号，
+         * 因此两种假设下引号的位置相同，只是 string 的内外相反。
+         */
+        void scan(Input input) {
+            try {
+                ByteBuffer buffer = input.slice(start, end);
+                boolean quoted = false;
+                int out = 0;
+                int in = 0;
+                for (int i = input.isEscaped(start) ? 1 : 0, n = buffer.limit(); i < n; i++) {
+                    switch (buffer.get(i)) {
+                        case '\\':
+                            i++;
+                            break;
+                        case JSON_QUOTATION_MARK:
+                            quoted = !quoted;
+                            break;
+                        case JSON_OBJECT_BEGIN:
+                        case JSON_ARRAY_BEGIN:
+                            if (quoted) {
+                                in++;
+                            } else {
+                                out++;
+                            }
+                            break;
+                        case JSON_OBJECT_END:
+                        case JSON_ARRAY_END:
+                            if (quoted) {
+                                in--;
+                            } else {
+                                out--;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+
+                oddQuotes = quoted;
+                depthOutOfString = out;
+                depthInString = in;
+            } catch (IOException e) {
+                throw new JsonException("Failed to read json.", e);
+            }
+        }
+
+        /**
+         * 从分段开头查找第一个属于根节点的 ','
+         */
+        void split(Input input) {
+            try {
+                ByteBuffer buffer = input.slice(start, end);
+                boolean quoted = inString;
+                int level = depth;
+                for (int i = input.isEscaped(start) ? 1 : 0, n = buffer.limit(); i < n; i++) {
+                    byte b = buffer.get(i);
+                    if (b == '\\') {
+                        i++;
+                    } else if (b == JSON_QUOTATION_MARK) {
+                        quoted = !quoted;
+                    } else if (quoted) {
+                        continue;
+                    } else if (b == JSON_OBJECT_BEGIN || b == JSON_ARRAY_BEGIN) {
+                        level++;
+                    } else if (b == JSON_OBJECT_END || b == JSON_ARRAY_END) {
+                        level--;
+                    } else if (b == JSON_VALUE_SEPARATOR && level == 1) {
+                        split = start + i;
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                throw new JsonException("Failed to read json.", e);
+            }
+        }
+    }
+
+    /**
+     * 输入，{@code byte[]} 或者文件
+     */
+    private static final class Input implements Closeable {
+
+        private final byte[] bytes;
+
+        private final FileChannel channel;
+
+        private final long length;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+            this.channel = null;
+            this.length = bytes.length;
+        }
+
+        Input(FileChannel channel) throws IOException {
+            this.bytes = null;
+            this.channel = channel;
+            this.length = channel.size();
+        }
+
+        byte byteAt(long pos) throws IOException {
+            if (bytes != null) {
+                return bytes[(int) pos];
+            }
+
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, pos);
+            return b.get(0);
+        }
+
+        /**
+         * {@code pos} 之前是否有奇数个连续的反斜杠，即 {@code pos} 处的字节是否被转义
+         */
+        boolean isEscaped(long pos) throws IOException {
+            boolean escaped = false;
+            while (--pos >= 0 && byteAt(pos) == '\\') {
+                escaped = !escaped;
+            }
+            return escaped;
+        }
+
+        /**
+         * [start, end) 范围内的字节，索引 0 对应 {@code start}
+         */
+        ByteBuffer slice(long start, long end) throws IOException {
+            if (bytes != null) {
+                return ByteBuffer.wrap(bytes, (int) start, (int) (end - start)).slice();
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+
+        JsonValue readElements(long start, long end) {
+            try {
+                JsonSource source = bytes != null ? new Utf8Source(bytes, (int) start, (int) (end - start)) : new ByteBufferSource(slice(start, end));
+                return new JsonReader(source, new DefaultJsonListener()).readElements();
+            } catch (IOException e) {
+                throw new JsonException("Failed to read json.", e);
+            }
+        }
+
+        JsonValue readSequential() throws IOException {
+            if (bytes != null) {
+                return new DomReader(bytes).read();
+            }
+            return new DomReader(new FileChannelSource(channel)).read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
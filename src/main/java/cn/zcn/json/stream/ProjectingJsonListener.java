@@ -0,0 +1,124 @@
+package cn.zcn.json.stream;
+
+import java.util.Arrays;
+
+/**
+ * 只创建 {@link Projection} 中保留的 member 的 listener，结果仍然是普通的 JSON Object、JSON Array。
+ * <p>
+ * 配合 {@link JsonReader} 使用时，不需要的 member value 在扫描时直接跳过，不会创建 {@code String} 或 Json Value。
+ * 使用其他 reader 时，仍会正确地创建所有 member。
+ *
+ * <pre>
+ * JsonValue json = new JsonReader(reader, new ProjectingJsonListener(Projection.of("id", "user.name"))).read();
+ * </pre>
+ *
+ * @author zicung
+ */
+public class ProjectingJsonListener extends DefaultJsonListener {
+
+    /**
+     * 根节点的 {@code Projection}
+     */
+    private final Projection projection;
+
+    /**
+     * 每一层容器对应的 {@code Projection}
+     */
+    private Projection[] projections = new Projection[16];
+
+    /**
+     * 每一层容器是否是 JSON Object
+     */
+    private final ContainerStack containers = new ContainerStack();
+
+    /**
+     * 即将读取的 member value 对应的 {@code Projection}，根节点为初始的 {@code Projection}
+     */
+    private Projection pending;
+
+    /**
+     * 尚未交给 {@link DefaultJsonListener} 的 member name
+     */
+    private String pendingName;
+
+    public ProjectingJsonListener(Projection projection) {
+        this.projection = projection;
+        this.pending = projection;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        containers.clear();
+        pending = projection;
+        pendingName = null;
+    }
+
+    @Override
+    public void endObjectName(String name) {
+        pendingName = name;
+        pending = projections[containers.depth() - 1].get(name);
+    }
+
+    @Override
+    public boolean skipObjectValue(boolean container) {
+        if (pending == null) {
+            pendingName = null;
+            return true;
+        }
+
+        flushName();
+        return false;
+    }
+
+    @Override
+    public void startObjectValue() {
+        flushName();
+        super.startObjectValue();
+    }
+
+    @Override
+    public void startObject() {
+        enter(true);
+        super.startObject();
+    }
+
+    @Override
+    public void endObject() {
+        containers.pop();
+        super.endObject();
+    }
+
+    @Override
+    public void startArray() {
+        enter(false);
+        super.startArray();
+    }
+
+    @Override
+    public void endArray() {
+        containers.pop();
+        super.endArray();
+    }
+
+    private void enter(boolean isObject) {
+        flushName();
+
+        int depth = containers.depth();
+        //JSON Array 中的 element 使用 JSON Array 所在层级的 Projection
+        Projection projection = depth > 0 && !containers.isObject() ? projections[depth - 1] : pending;
+        if (depth == projections.length) {
+            projections = Arrays.copyOf(projections, depth * 2);
+        }
+
+        projections[depth] = projection == null ? Projection.ALL : projection;
+        containers.push(isObject);
+    }
+
+    private void flushName() {
+        if (pendingName != null) {
+            super.endObjectName(pendingName);
+            pendingName = null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package cn.zcn.json.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 字段投影，描述读取 JSON 时需要保留的 member。每一层 JSON Object 对应一个 {@code Projection}，
+ * JSON Array 不占用层级，其中的 element 使用 JSON Array 所在层级的 {@code Projection}。
+ *
+ * <pre>
+ * Projection projection = new Projection()
+ *         .include("id")
+ *         .include("user", new Projection().include("name"));
+ *
+ * // 等价于
+ * Projection projection = Projection.of("id", "user.name");
+ * </pre>
+ *
+ * @author zicung
+ */
+public final class Projection {
+
+    /**
+     * 保留所有 member
+     */
+    static final Projection ALL = new Projection(true);
+
+    private final boolean all;
+
+    private final Map<String, Projection> members = new HashMap<>();
+
+    public Projection() {
+        this(false);
+    }
+
+    private Projection(boolean all) {
+        this.all = all;
+    }
+
+    /**
+     * 根据以 "." 分隔的路径创建 {@code Projection}，e.g. {@code "user.name"}。
+     * 当一个路径是另一个路径的前缀时，保留前缀对应的整个 member。
+     */
+    public static Projection of(String... paths) {
+        Projection root = new Projection();
+        for (String path : paths) {
+            Projection projection = root;
+            String[] names = path.split("\\.");
+            for (int i = 0; i < names.length && projection != ALL; i++) {
+                if (i == names.length - 1) {
+                    projection.members.put(names[i], ALL);
+                } else {
+                    projection = projection.members.computeIfAbsent(names[i], k -> new Projection());
+                }
+            }
+        }
+        return root;
+    }
+
+    /**
+     * 保留名为 {@code name} 的整个 member
+     */
+    public Projection include(String name) {
+        return include(name, ALL);
+    }
+
+    /**
+     * 保留名为 {@code name} 的 member，并使用 {@code projection} 过滤其中的内容
+     */
+    public Projection include(String name, Projection projection) {
+        if (all) {
+            throw new UnsupportedOperationException("Can not modify projection that includes all members.");
+        }
+
+        members.put(name, projection);
+        return this;
+    }
+
+    /**
+     * 获取 member 对应的 {@code Projection}
+     *
+     * @return 不需要保留该 member 时返回 {@code null}
+     */
+    Projection get(String name) {
+        return all ? ALL : members.get(name);
+    }
+}
@@ -0,0 +1,305 @@
+package cn.zcn.json.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static cn.zcn.json.ast.JsonCharacters.JSON_QUOTATION_MARK;
+import static cn.zcn.json.ast.JsonCharacters.NEW_LINE;
+
+/**
+ * 从 {@link Reader} 中读取字符的输入源。
+ * <p>
+ * 跳过空白字符与扫描 string 时直接遍历 {@code readBuffer}，只有到达缓存末尾时才会重新填充。
+ *
+ * @author zicung
+ */
+class ReaderSource extends JsonSource {
+
+    /**
+     * 复用时保留的 string buffer 的最大容量，超过时重新创建，避免一次读取了很长的 string 之后一直占用内存
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    /**
+     * Json content stream
+     */
+    private Reader reader;
+
+    /**
+     * 字符缓存，用于缓存从 {@code Reader} 读取的 chars
+     */
+    private final char[] readBuffer = new char[512];
+
+    /**
+     * 下一个将要读取的 char 的索引位置
+     */
+    private int nextPos = 0;
+
+    /**
+     * {@code readBuffer} 缓存的字符数量
+     */
+    private int fill = 0;
+
+    /**
+     * Json Value buffer。当在读取 Json Value 时读取到了 {@code readBuffer} 的尾部时，当前 Json Value 尚未读取完成时，将内容缓存到 {@code valueBuffer}
+     */
+    private StringBuilder valueBuffer;
+
+    /**
+     * 标识当前读取的 Json Value 的开始索引
+     */
+    private int valueStartPos = -1;
+
+    /**
+     * string buffer。当 string 跨越了 {@code readBuffer} 的尾部或者包含转义字符时使用
+     */
+    private StringBuilder stringBuffer = new StringBuilder();
+
+    /**
+     * 之前所有缓存的内容所占的行数（从 1 开始）
+     */
+    private int lineBase = 1;
+
+    /**
+     * 之前所有缓存的内容在最后一行所占的列数
+     */
+    private int columnBase = 0;
+
+    ReaderSource(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 从 {@code reader} 开始读取新的输入，复用 {@code readBuffer} 以及 string buffer
+     */
+    void reset(Reader reader) {
+        this.reader = reader;
+        this.nextPos = 0;
+        this.fill = 0;
+        this.valueStartPos = -1;
+        this.lineBase = 1;
+        this.columnBase = 0;
+
+        if (valueBuffer != null && valueBuffer.capacity() > MAX_RETAINED_CAPACITY) {
+            valueBuffer = null;
+        } else if (valueBuffer != null) {
+            valueBuffer.setLength(0);
+        }
+        if (stringBuffer.capacity() > MAX_RETAINED_CAPACITY) {
+            stringBuffer = new StringBuilder();
+        }
+    }
+
+    @Override
+    int read() throws IOException {
+        if (nextPos >= fill && !refill()) {
+            return -1;
+        }
+
+        return readBuffer[nextPos++];
+    }
+
+    @Override
+    int skipWhiteSpace() throws IOException {
+        for (; ; ) {
+            int pos = nextPos;
+            while (pos < fill && isWhitespace(readBuffer[pos])) {
+                pos++;
+            }
+
+            nextPos = pos;
+            if (pos < fill) {
+                return readBuffer[nextPos++];
+            }
+
+            if (!refill()) {
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    String readString() throws IOException {
+        return readString(false);
+    }
+
+    @Override
+    String readName() throws IOException {
+        return readString(true);
+    }
+
+    private String readString(boolean name) throws IOException {
+        boolean buffered = false;
+        for (; ; ) {
+            int start = nextPos;
+            int pos = scanString(start);
+
+            if (pos < fill && readBuffer[pos] == JSON_QUOTATION_MARK) {
+                nextPos = pos + 1;
+                if (!buffered) {
+                    return name ? names.intern(readBuffer, start, pos - start) : new String(readBuffer, start, pos - start);
+                }
+
+                stringBuffer.append(readBuffer, start, pos - start);
+                String val = stringBuffer.toString();
+                return name ? names.intern(val) : val;
+            }
+
+            if (!buffered) {
+                stringBuffer.setLength(0);
+                buffered = true;
+            }
+            stringBuffer.append(readBuffer, start, pos - start);
+
+            if (pos == fill) {
+                nextPos = pos;
+                if (!refill()) {
+                    throw invalidStringCharacter(-1);
+                }
+            } else {
+                nextPos = pos + 1;
+                if (readBuffer[pos] == '\\') {
+                    stringBuffer.append(readEscape());
+                } else {
+                    throw invalidStringCharacter(readBuffer[pos]);
+                }
+            }
+        }
+    }
+
+    @Override
+    void skipString() throws IOException {
+        for (; ; ) {
+            int pos = scanString(nextPos);
+
+            if (pos == fill) {
+                nextPos = pos;
+                if (!refill()) {
+                    throw invalidStringCharacter(-1);
+                }
+                continue;
+            }
+
+            nextPos = pos + 1;
+            char c = readBuffer[pos];
+            if (c == JSON_QUOTATION_MARK) {
+                return;
+            } else if (c != '\\') {
+                throw invalidStringCharacter(c);
+            } else {
+                readEscape();
+            }
+        }
+    }
+
+    /**
+     * 从 {@code pos} 开始查找 {@code readBuffer} 中第一个引号、反斜杠或者控制字符。
+     *
+     * @return 该字符的索引，没有找到时返回 {@code fill}
+     */
+    private int scanString(int pos) {
+        while (pos < fill) {
+            char c = readBuffer[pos];
+            if (c == JSON_QUOTATION_MARK || c == '\\' || c < 0x20) {
+                return pos;
+            }
+            pos++;
+        }
+        return fill;
+    }
+
+    /**
+     * 读取下一批字符到缓存中。
+     *
+     * @return 到达输入末尾时返回 {@code false}
+     */
+    private boolean refill() throws IOException {
+        if (valueStartPos != -1) {
+            valueBuffer.append(readBuffer, valueStartPos, fill - valueStartPos);
+            valueStartPos = 0;
+        }
+
+        //Reader 中的内容无法再次读取，需要在覆盖缓存之前记录行数与列数。
+        //从末尾向前找到最后一个换行符得到列数，之前的部分只统计换行符的数量
+        int i = fill - 1;
+        while (i >= 0 && readBuffer[i] != NEW_LINE) {
+            i--;
+        }
+        if (i < 0) {
+            columnBase += fill;
+        } else {
+            columnBase = fill - i - 1;
+            int newLines = 0;
+            for (; i >= 0; i--) {
+                newLines += readBuffer[i] == NEW_LINE ? 1 : 0;
+            }
+            lineBase += newLines;
+        }
+
+        fill = reader.read(readBuffer, 0, readBuffer.length);
+        nextPos = 0;
+
+        if (fill == -1) {
+            //到达末尾后，最近一次读取的位置位于缓存末尾之后
+            fill = 0;
+            nextPos = 1;
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    void openValue() {
+        if (valueBuffer == null) {
+            valueBuffer = new StringBuilder();
+        }
+
+        valueStartPos = nextPos - 1;
+    }
+
+    @Override
+    String closeValue() {
+        if (valueBuffer.length() > 0) {
+            valueBuffer.append(readBuffer, valueStartPos, nextPos - valueStartPos - 1);
+
+            String value = valueBuffer.toString();
+            valueBuffer.setLength(0);
+            valueStartPos = -1;
+            return value;
+        }
+
+        String val = new String(readBuffer, valueStartPos, nextPos - valueStartPos - 1);
+        valueStartPos = -1;
+        return val;
+    }
+
+    @Override
+    void discardValue() {
+        valueBuffer.setLength(0);
+        valueStartPos = -1;
+    }
+
+    @Override
+    int line() {
+        int end = Math.min(nextPos, fill);
+        int line = lineBase;
+        for (int i = 0; i < end; i++) {
+            if (readBuffer[i] == NEW_LINE) {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    @Override
+    int column() {
+        int end = Math.min(nextPos, fill);
+        for (int i = end - 1; i >= 0; i--) {
+            if (readBuffer[i] == NEW_LINE) {
+                return end - i - 1;
+            }
+        }
+        return columnBase + end;
+    }
+}
@@ -0,0 +1,357 @@
+package cn.zcn.json.stream;
+
+import java.math.BigInteger;
+
+/**
+ * 使用 Schubfach 算法将 {@code double}、{@code float} 转换为最短的十进制表示，
+ * 即重新解析后仍能得到原值的位数最少的十进制数，位数相同时选择最接近原值的一个。
+ * <p>
+ * 转换过程只使用整数运算，结果直接以 ASCII 写入调用方提供的 {@code byte[]}，不会创建 {@code String}。
+ * 输出格式与 {@link Double#toString(double)} 相同：10^-3 到 10^7 之间使用普通记法，e.g. {@code 0.001}、{@code 1.0}，
+ * 其余使用科学记法，e.g. {@code 1.0E7}、{@code 1.5E-4}。
+ * <p>
+ * 参考 Raffaello Giulietti, The Schubfach way to render doubles.
+ *
+ * @author zicung
+ */
+final class Schubfach {
+
+    /**
+     * 写入一个 {@code double} 最多需要的字节数，e.g. {@code -2.2250738585072014E-308}
+     */
+    static final int MAX_DOUBLE_LENGTH = 24;
+
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << (DOUBLE_P - 1);
+    private static final int DOUBLE_C_TINY = 3;
+
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << (FLOAT_P - 1);
+    private static final int FLOAT_C_TINY = 8;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    /**
+     * 10 的幂的近似值 {@code g} 对应的最小指数
+     */
+    private static final int K_MIN = -324;
+
+    private static final int K_MAX = 292;
+
+    /**
+     * 对于 K_MIN <= k <= K_MAX，令 10^-k = β * 2^r，其中 2^125 <= β < 2^126，g = floor(β) + 1。
+     * {@code G[2 * (k - K_MIN)]} 为 g 的高 63 位，{@code G[2 * (k - K_MIN) + 1]} 为 g 的低 63 位。
+     */
+    private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+    static {
+        BigInteger five = BigInteger.valueOf(5);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            //10^-k = 5^-k * 2^-k，r = flog2(10^-k) - 125
+            int r = flog2pow10(-k) - 125;
+            BigInteger g;
+            if (k <= 0) {
+                g = shift(five.pow(-k), -k - r);
+            } else {
+                g = BigInteger.ONE.shiftLeft(-k - r).divide(five.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+
+            G[2 * (k - K_MIN)] = g.shiftRight(63).longValue();
+            G[2 * (k - K_MIN) + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private static BigInteger shift(BigInteger value, int n) {
+        return n >= 0 ? value.shiftLeft(n) : value.shiftRight(-n);
+    }
+
+    private Schubfach() {
+    }
+
+    /**
+     * 将 {@code v} 的最短十进制表示写入 {@code buf}，调用方需要保证至少有 {@link #MAX_DOUBLE_LENGTH} 个字节的空间。
+     * {@code NaN} 以及无穷大写入为 {@code NaN}、{@code Infinity}，与 {@link Double#toString(double)} 相同。
+     *
+     * @return 写入结束后的位置
+     */
+    static int writeDouble(double v, byte[] buf, int pos) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & ((1L << (DOUBLE_P - 1)) - 1);
+        int bq = (int) (bits >>> (DOUBLE_P - 1)) & 0x7FF;
+        if (bq == 0x7FF) {
+            return writeSpecial(t != 0, bits < 0, buf, pos);
+        }
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            //正规数，v = c * 2^q
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            if (0 < mq && mq < DOUBLE_P) {
+                //v 是整数时直接输出
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, pos);
+        }
+
+        if (t != 0) {
+            //非正规数
+            return t < DOUBLE_C_TINY ? toDecimal(DOUBLE_Q_MIN, 10 * t, -1, buf, pos) : toDecimal(DOUBLE_Q_MIN, t, 0, buf, pos);
+        }
+
+        return writeZero(buf, pos);
+    }
+
+    /**
+     * 将 {@code v} 的最短十进制表示写入 {@code buf}，调用方需要保证至少有 {@link #MAX_DOUBLE_LENGTH} 个字节的空间。
+     *
+     * @return 写入结束后的位置
+     */
+    static int writeFloat(float v, byte[] buf, int pos) {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & ((1 << (FLOAT_P - 1)) - 1);
+        int bq = (bits >>> (FLOAT_P - 1)) & 0xFF;
+        if (bq == 0xFF) {
+            return writeSpecial(t != 0, bits < 0, buf, pos);
+        }
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, pos);
+        }
+
+        if (t != 0) {
+            return t < FLOAT_C_TINY ? toDecimal(FLOAT_Q_MIN, 10 * t, -1, buf, pos) : toDecimal(FLOAT_Q_MIN, t, 0, buf, pos);
+        }
+
+        return writeZero(buf, pos);
+    }
+
+    /**
+     * 计算 {@code c * 2^q} 舍入区间内位数最少的十进制数
+     *
+     * @param dk 非常小的非正规数的尾数乘以了 10，需要在结果的指数中补偿
+     */
+    private static int toDecimal(int q, long c, int dk, byte[] buf, int pos) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            //c 为最小尾数时，与前一个 double 的间隔只有一半
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[2 * (k - K_MIN)];
+        long g0 = G[2 * (k - K_MIN) + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            //优先尝试少一位的结果
+            long sp10 = 10 * Numbers.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buf, pos);
+        }
+
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    private static int toDecimal(int q, int c, int dk, byte[] buf, int pos) {
+        int out = c & 1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        int h = q + flog2pow10(-k) + 33;
+        long g = G[2 * (k - K_MIN)] + 1;
+
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buf, pos);
+        }
+
+        int cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    /**
+     * 计算 {@code g * cp * 2^-127} 并向奇数舍入
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = Numbers.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Numbers.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int rop(long g, long cp) {
+        long x1 = Numbers.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /**
+     * floor(log10(2^e))
+     */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /**
+     * floor(log10(3/4 * 2^e))
+     */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /**
+     * floor(log2(10^e))
+     */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * 写入 {@code f * 10^e}
+     */
+    private static int writeDecimal(long f, int e, byte[] buf, int pos) {
+        //去掉末尾的 0
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+
+        int length = Numbers.digits(f);
+        //第一位数字对应的十进制指数
+        int exp = e + length - 1;
+
+        if (exp >= 0 && exp < 7) {
+            //整数部分的位数为 exp + 1，不足时补 0，小数部分至少为 "0"
+            if (length <= exp + 1) {
+                pos = Numbers.writeDigits(f, length, buf, pos);
+                for (int i = length; i <= exp; i++) {
+                    buf[pos++] = '0';
+                }
+                buf[pos++] = '.';
+                buf[pos++] = '0';
+            } else {
+                int start = pos;
+                Numbers.writeDigits(f, length, buf, pos + 1);
+                System.arraycopy(buf, start + 1, buf, start, exp + 1);
+                buf[start + exp + 1] = '.';
+                pos = start + length + 1;
+            }
+        } else if (exp < 0 && exp >= -3) {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            for (int i = -1; i > exp; i--) {
+                buf[pos++] = '0';
+            }
+            pos = Numbers.writeDigits(f, length, buf, pos);
+        } else {
+            //科学记法，d.ddd E exp
+            int start = pos;
+            Numbers.writeDigits(f, length, buf, pos + 1);
+            buf[start] = buf[start + 1];
+            buf[start + 1] = '.';
+            pos = start + length + 1;
+            if (length == 1) {
+                buf[pos++] = '0';
+            }
+
+            buf[pos++] = 'E';
+            if (exp < 0) {
+                buf[pos++] = '-';
+                exp = -exp;
+            }
+            pos = Numbers.writeDigits(exp, Numbers.digits(exp), buf, pos);
+        }
+
+        return pos;
+    }
+
+    private static int writeZero(byte[] buf, int pos) {
+        buf[pos++] = '0';
+        buf[pos++] = '.';
+        buf[pos++] = '0';
+        return pos;
+    }
+
+    private static int writeSpecial(boolean nan, boolean negative, byte[] buf, int pos) {
+        String s = nan ? "NaN" : negative ? "-Infinity" : "Infinity";
+        for (int i = 0; i < s.length(); i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,84 @@
+package cn.zcn.json.stream;
+
+/**
+ * SWAR（SIMD within a register）工具方法，将 8 个字节打包为一个 {@code long} 同时进行比较。
+ * <p>
+ * 返回的掩码中，满足条件的字节的最高位为 1，其余位为 0。计算过程不会在字节之间产生进位，因此掩码中的每一位都是精确的。
+ * 字节顺序为 little-endian，即第一个字节位于最低位。
+ *
+ * @author zicung
+ */
+final class Swar {
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long SPACES = 0x2020202020202020L;
+    private static final long NEW_LINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LINE_FEEDS = 0x0D0D0D0D0D0D0D0DL;
+    private static final long TABS = 0x0909090909090909L;
+    private static final long QUOTES = 0x2222222222222222L;
+    private static final long BACKSLASHES = 0x5C5C5C5C5C5C5C5CL;
+    private static final long CONTROL_BITS = 0xE0E0E0E0E0E0E0E0L;
+
+    private Swar() {
+    }
+
+    /**
+     * 以 little-endian 顺序读取 {@code bytes} 中从 {@code pos} 开始的 8 个字节，调用方需要保证不会越界
+     */
+    static long getLong(byte[] bytes, int pos) {
+        return (bytes[pos] & 0xFFL)
+                | (bytes[pos + 1] & 0xFFL) << 8
+                | (bytes[pos + 2] & 0xFFL) << 16
+                | (bytes[pos + 3] & 0xFFL) << 24
+                | (bytes[pos + 4] & 0xFFL) << 32
+                | (bytes[pos + 5] & 0xFFL) << 40
+                | (bytes[pos + 6] & 0xFFL) << 48
+                | (bytes[pos + 7] & 0xFFL) << 56;
+    }
+
+    /**
+     * 值为 0 的字节
+     */
+    static long zeroBytes(long word) {
+        long t = (word & LOW_BITS) + LOW_BITS;
+        return ~(t | word | LOW_BITS);
+    }
+
+    /**
+     * 换行符 {@code '\n'}
+     */
+    static long newLines(long word) {
+        return zeroBytes(word ^ NEW_LINES);
+    }
+
+    /**
+     * UTF-8 字符的第一个字节，即不是 {@code 10xxxxxx} 形式的后续字节
+     */
+    static long charStarts(long word) {
+        return ~(word & ~(word << 1)) & HIGH_BITS;
+    }
+
+    /**
+     * 不是空白字符的字节
+     */
+    static long nonWhitespace(long word) {
+        long whitespace = zeroBytes(word ^ SPACES) | zeroBytes(word ^ NEW_LINES) |
+                zeroBytes(word ^ LINE_FEEDS) | zeroBytes(word ^ TABS);
+        return ~whitespace & HIGH_BITS;
+    }
+
+    /**
+     * 在 string 中需要特殊处理的字节：引号、反斜杠以及控制字符
+     */
+    static long stringSpecial(long word) {
+        return zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES) | zeroBytes(word & CONTROL_BITS);
+    }
+
+    /**
+     * 掩码中第一个满足条件的字节的索引
+     */
+    static int firstByte(long mask) {
+        return Long.numberOfTrailingZeros(mask) >>> 3;
+    }
+}
@@ -0,0 +1,191 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonPrimitive;
+import cn.zcn.json.ast.JsonValue;
+import cn.zcn.json.ast.LazyParsedNumber;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static cn.zcn.json.ast.JsonCharacters.JSON_QUOTATION_MARK;
+
+/**
+ * JSON 的结构索引，由 {@link TapeReader} 创建。
+ * <p>
+ * 每个 Json Value 对应 {@code entries} 中的一项或两项，高 8 位是类型，低 56 位是内容：
+ * <ul>
+ *     <li>{@link #OBJECT}、{@link #ARRAY}：低 32 位是与之匹配的 {@link #END} 的下一项的索引，32 ~ 55 位是 member 或 element 的数量</li>
+ *     <li>{@link #END}：与之匹配的 {@link #OBJECT} 或 {@link #ARRAY} 的索引</li>
+ *     <li>{@link #STRING}：开头的引号在输入中的位置，member name 也使用该类型</li>
+ *     <li>{@link #LONG}、{@link #DOUBLE}：下一项是 {@code long} 或 {@code double} 的二进制表示</li>
+ *     <li>{@link #BIG_NUMBER}：数字在输入中的开始位置，下一项是结束位置</li>
+ * </ul>
+ *
+ * @author zicung
+ */
+final class Tape {
+
+    static final int OBJECT = 1;
+    static final int ARRAY = 2;
+    static final int END = 3;
+    static final int STRING = 4;
+    static final int LONG = 5;
+    static final int DOUBLE = 6;
+    static final int BIG_NUMBER = 7;
+    static final int TRUE = 8;
+    static final int FALSE = 9;
+    static final int NULL = 10;
+
+    static final long PAYLOAD_MASK = (1L << 56) - 1;
+
+    /**
+     * member 或 element 数量的最大值，超过时需要遍历计算
+     */
+    static final int MAX_COUNT = (1 << 24) - 1;
+
+    private final byte[] json;
+
+    private final long[] entries;
+
+    Tape(byte[] json, long[] entries) {
+        this.json = json;
+        this.entries = entries;
+    }
+
+    int type(int index) {
+        return (int) (entries[index] >>> 56);
+    }
+
+    long payload(int index) {
+        return entries[index] & PAYLOAD_MASK;
+    }
+
+    /**
+     * 下一个相邻的 Json Value 的索引
+     */
+    int next(int index) {
+        switch (type(index)) {
+            case OBJECT:
+            case ARRAY:
+                return (int) payload(index);
+            case LONG:
+            case DOUBLE:
+            case BIG_NUMBER:
+                return index + 2;
+            default:
+                return index + 1;
+        }
+    }
+
+    /**
+     * JSON Object 的 member 数量或 JSON Array 的 element 数量
+     */
+    int count(int index) {
+        int count = (int) (payload(index) >>> 32);
+        if (count < MAX_COUNT) {
+            return count;
+        }
+
+        count = 0;
+        boolean isObject = type(index) == OBJECT;
+        for (int i = index + 1; type(i) != END; i = next(i)) {
+            if (isObject) {
+                i++;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    long longValue(int index) {
+        return entries[index + 1];
+    }
+
+    double doubleValue(int index) {
+        return Double.longBitsToDouble(entries[index + 1]);
+    }
+
+    String string(int index) {
+        int start = (int) payload(index) + 1;
+        int end = stringEnd(start);
+        return end >= 0 ? new String(json, start, end - start, StandardCharsets.UTF_8) : unescape(start);
+    }
+
+    String name(int index) {
+        int start = (int) payload(index) + 1;
+        int end = stringEnd(start);
+        return end >= 0 ? NameTable.SHARED.intern(json, start, end - start) : NameTable.SHARED.intern(unescape(start));
+    }
+
+    /**
+     * 判断 member name 是否与 {@code name} 相等，ASCII 字符直接比较字节，不会创建 {@code String}
+     */
+    boolean nameEquals(int index, String name) {
+        int pos = (int) payload(index) + 1;
+        for (int i = 0, length = name.length(); i < length; i++, pos++) {
+            char c = name.charAt(i);
+            if (c >= 0x80 || json[pos] == '\\') {
+                return name.equals(string(index));
+            }
+            if (json[pos] != c || c == JSON_QUOTATION_MARK) {
+                return false;
+            }
+        }
+        return json[pos] == JSON_QUOTATION_MARK;
+    }
+
+    /**
+     * 获取指定位置的 Json Value。JSON Object 与 JSON Array 返回延迟解析的视图。
+     */
+    JsonValue value(int index) {
+        switch (type(index)) {
+            case OBJECT:
+                return new TapeObject(this, index);
+            case ARRAY:
+                return new TapeArray(this, index);
+            case STRING:
+                return JsonPrimitive.valueOf(string(index));
+            case LONG:
+                return JsonPrimitive.valueOf(longValue(index));
+            case DOUBLE:
+                return JsonPrimitive.valueOf(doubleValue(index));
+            case BIG_NUMBER:
+                int start = (int) payload(index);
+                int end = (int) entries[index + 1];
+                return new JsonPrimitive(new LazyParsedNumber(new String(json, start, end - start, StandardCharsets.ISO_8859_1)));
+            case TRUE:
+                return JsonPrimitive.TRUE;
+            case FALSE:
+                return JsonPrimitive.FALSE;
+            default:
+                return JsonPrimitive.NULL;
+        }
+    }
+
+    /**
+     * 查找 string 结尾的引号。
+     *
+     * @return 结尾的引号的索引，string 包含转义字符时返回 {@code -1}
+     */
+    private int stringEnd(int pos) {
+        while (json[pos] != JSON_QUOTATION_MARK) {
+            if (json[pos] == '\\') {
+                return -1;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * 解码包含转义字符的 string，{@code start} 是开头的引号的下一个字节
+     */
+    private String unescape(int start) {
+        try {
+            return new Utf8Source(json, start, json.length - start).readString();
+        } catch (IOException e) {
+            throw new JsonException("Failed to read json.", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonArray;
+import cn.zcn.json.ast.JsonValue;
+
+/**
+ * 基于 {@link Tape} 延迟解析的 JSON Array。
+ * <p>
+ * {@link #get(int)}、{@link #getLong(int)}、{@link #getDouble(int)}、{@link #size()} 直接在结构索引上查找，只解析被访问到的 element。
+ * 其它操作会先加载全部 element。
+ * <p>
+ * 读取操作也会修改内部状态，在全部加载之前不能在多个线程之间共享。
+ *
+ * @author zicung
+ */
+class TapeArray extends JsonArray {
+
+    private final Tape tape;
+
+    /**
+     * 在 {@code tape} 中的索引
+     */
+    private final int index;
+
+    /**
+     * 每个 element 在 {@code tape} 中的索引，第一次随机访问时创建
+     */
+    private int[] offsets;
+
+    /**
+     * 已经解析过的 element
+     */
+    private JsonValue[] children;
+
+    private boolean loaded = false;
+
+    TapeArray(Tape tape, int index) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        if (loaded) {
+            return super.get(index);
+        }
+
+        int offset = offset(index);
+        if (children == null) {
+            children = new JsonValue[offsets.length];
+        }
+
+        JsonValue child = children[index];
+        if (child == null) {
+            child = children[index] = tape.value(offset);
+        }
+        return child;
+    }
+
+    @Override
+    public long getLong(int index) {
+        if (loaded) {
+            return super.getLong(index);
+        }
+
+        int offset = offset(index);
+        switch (tape.type(offset)) {
+            case Tape.LONG:
+                return tape.longValue(offset);
+            case Tape.DOUBLE:
+                return (long) tape.doubleValue(offset);
+            default:
+                return get(index).getAsNumber().longValue();
+        }
+    }
+
+    @Override
+    public double getDouble(int index) {
+        if (loaded) {
+            return super.getDouble(index);
+        }
+
+        int offset = offset(index);
+        switch (tape.type(offset)) {
+            case Tape.LONG:
+                return tape.longValue(offset);
+            case Tape.DOUBLE:
+                return tape.doubleValue(offset);
+            default:
+                return get(index).getAsNumber().doubleValue();
+        }
+    }
+
+    @Override
+    public int size() {
+        return loaded ? super.size() : tape.count(index);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    protected void load() {
+        if (loaded) {
+            return;
+        }
+
+        //先填充全部 element 再标记为已加载，填充时不能经过会再次调用 load() 的 add()
+        int ordinal = 0;
+        for (int i = index + 1; tape.type(i) != Tape.END; i = tape.next(i), ordinal++) {
+            JsonValue child = children == null ? null : children[ordinal];
+            if (tape.type(i) == Tape.LONG) {
+                appendLong(tape.longValue(i));
+            } else if (tape.type(i) == Tape.DOUBLE) {
+                appendDouble(tape.doubleValue(i));
+            } else {
+                append(child != null ? child : tape.value(i));
+            }
+        }
+        offsets = null;
+        children = null;
+        loaded = true;
+    }
+
+    private int offset(int index) {
+        if (offsets == null) {
+            int[] offsets = new int[tape.count(this.index)];
+            int ordinal = 0;
+            for (int i = this.index + 1; tape.type(i) != Tape.END; i = tape.next(i)) {
+                offsets[ordinal++] = i;
+            }
+            this.offsets = offsets;
+        }
+
+        if (index < 0 || index >= offsets.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + offsets.length);
+        }
+        return offsets[index];
+    }
+}
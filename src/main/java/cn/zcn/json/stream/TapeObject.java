@@ -0,0 +1,103 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonObject;
+import cn.zcn.json.ast.JsonValue;
+
+/**
+ * 基于 {@link Tape} 延迟解析的 JSON Object。
+ * <p>
+ * {@link #get(String)}、{@link #has(String)}、{@link #isEmpty()} 直接在结构索引上查找，只解析被访问到的 member value。
+ * 其它操作会先加载全部 JSON member，{@link #size()} 也需要加载，因为存在相同的 member name 时以最后一个为准。
+ * <p>
+ * 读取操作也会修改内部状态，在全部加载之前不能在多个线程之间共享。
+ *
+ * @author zicung
+ */
+class TapeObject extends JsonObject {
+
+    private final Tape tape;
+
+    /**
+     * 在 {@code tape} 中的索引
+     */
+    private final int index;
+
+    /**
+     * 已经解析过的 member value，按 member 的顺序存储
+     */
+    private JsonValue[] children;
+
+    private boolean loaded = false;
+
+    TapeObject(Tape tape, int index) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    @Override
+    public JsonValue get(String name) {
+        if (loaded) {
+            return super.get(name);
+        }
+
+        //与 JsonObject#set 保持一致，存在相同的 name 时以最后一个为准
+        int found = -1;
+        int valueIndex = -1;
+        int ordinal = 0;
+        for (int i = index + 1; tape.type(i) != Tape.END; ordinal++) {
+            if (tape.nameEquals(i, name)) {
+                found = ordinal;
+                valueIndex = i + 1;
+            }
+            i = tape.next(i + 1);
+        }
+
+        return found == -1 ? null : child(found, valueIndex);
+    }
+
+    @Override
+    public boolean has(String name) {
+        if (loaded) {
+            return super.has(name);
+        }
+
+        for (int i = index + 1; tape.type(i) != Tape.END; i = tape.next(i + 1)) {
+            if (tape.nameEquals(i, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return loaded ? super.isEmpty() : tape.count(index) == 0;
+    }
+
+    @Override
+    protected void load() {
+        if (loaded) {
+            return;
+        }
+
+        //先填充全部 JSON member 再标记为已加载，填充时不能经过会再次调用 load() 的 set()
+        int ordinal = 0;
+        for (int i = index + 1; tape.type(i) != Tape.END; i = tape.next(i + 1)) {
+            put(tape.name(i), child(ordinal++, i + 1));
+        }
+        children = null;
+        loaded = true;
+    }
+
+    private JsonValue child(int ordinal, int valueIndex) {
+        if (children == null) {
+            children = new JsonValue[tape.count(index)];
+        }
+
+        JsonValue child = children[ordinal];
+        if (child == null) {
+            child = children[ordinal] = tape.value(valueIndex);
+        }
+        return child;
+    }
+}
@@ -0,0 +1,356 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonValue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static cn.zcn.json.ast.JsonCharacters.*;
+
+/**
+ * 使用结构索引延迟解析 JSON。
+ * <p>
+ * 读取时只扫描一遍输入，校验语法并记录每个 Json Value 在输入中的位置，数字会在扫描时直接转换为 {@code long}、{@code double}。
+ * 返回的 JSON Object、JSON Array 在被访问时才会创建 member name、{@code String} 以及子节点。
+ * 返回的 Json Value 引用了输入的 {@code byte[]}，使用期间不能修改输入。
+ *
+ * @author zicung
+ */
+public class TapeReader {
+
+    private final byte[] json;
+
+    /**
+     * 以 little-endian 顺序按 {@code long} 读取 {@code json}，见 {@link Swar}
+     */
+    private final ByteBuffer words;
+
+    private final int limit;
+
+    /**
+     * 下一个将要读取的 byte 的索引位置
+     */
+    private int pos;
+
+    private long[] entries = new long[64];
+
+    private int size = 0;
+
+    private final ContainerStack containers = new ContainerStack();
+
+    /**
+     * 每一层容器在 {@code entries} 中的索引
+     */
+    private int[] starts = new int[16];
+
+    /**
+     * 每一层容器的 member 或 element 数量
+     */
+    private int[] counts = new int[16];
+
+    /**
+     * 在 {@code json} 的 {@code pos} 上读取 Number
+     */
+    private final NumberScanner numbers = new NumberScanner() {
+        @Override
+        int current() {
+            return peek();
+        }
+
+        @Override
+        void next() {
+            pos++;
+        }
+
+        @Override
+        JsonException leadingZero() {
+            return error("Leading zeros are not allowed");
+        }
+
+        @Override
+        JsonException expectedDigit() {
+            return unexpected("\"Digit\"");
+        }
+    };
+
+    public TapeReader(byte[] json) {
+        this.json = json;
+        this.words = ByteBuffer.wrap(json).order(ByteOrder.LITTLE_ENDIAN);
+        this.limit = json.length;
+    }
+
+    public JsonValue read() {
+        skipWhiteSpace();
+        int c = peek();
+        if (c != JSON_OBJECT_BEGIN && c != JSON_ARRAY_BEGIN) {
+            throw unexpected("\"{\" , \"[\"");
+        }
+
+        boolean first = true;
+        while (true) {
+            if (!containers.isEmpty() && containers.isObject()) {
+                skipWhiteSpace();
+                if (first && peek() == JSON_OBJECT_END) {
+                    pos++;
+                    endContainer();
+                } else {
+                    if (peek() != JSON_QUOTATION_MARK) {
+                        throw unexpected("\"Pair Name\"");
+                    }
+                    appendString();
+                    skipWhiteSpace();
+                    if (peek() != JSON_NAME_SEPARATOR) {
+                        throw unexpected("\":\"");
+                    }
+                    pos++;
+                    first = readValue();
+                    if (first) {
+                        continue;
+                    }
+                }
+            } else {
+                skipWhiteSpace();
+                if (first && peek() == JSON_ARRAY_END && !containers.isEmpty()) {
+                    pos++;
+                    endContainer();
+                } else {
+                    first = readValue();
+                    if (first) {
+                        continue;
+                    }
+                }
+            }
+
+            //读取完一个 Json Value，期待 ','、'}'、']'
+            while (true) {
+                if (containers.isEmpty()) {
+                    skipWhiteSpace();
+                    if (pos != limit) {
+                        throw unexpected("\"EOF\"");
+                    }
+                    return new Tape(json, Arrays.copyOf(entries, size)).value(0);
+                }
+
+                skipWhiteSpace();
+                c = peek();
+                if (c == JSON_VALUE_SEPARATOR) {
+                    pos++;
+                    break;
+                } else if (containers.isObject() ? c == JSON_OBJECT_END : c == JSON_ARRAY_END) {
+                    pos++;
+                    endContainer();
+                } else {
+                    throw unexpected(containers.isObject() ? "\",\" , \"}\"" : "\",\" , \"]\"");
+                }
+            }
+            first = false;
+        }
+    }
+
+    /**
+     * 读取 member value 或 element value
+     *
+     * @return 读取到的是否是 JSON Object 或 JSON Array 的开始
+     */
+    private boolean readValue() {
+        skipWhiteSpace();
+        if (!containers.isEmpty()) {
+            counts[containers.depth() - 1]++;
+        }
+
+        switch (peek()) {
+            case JSON_OBJECT_BEGIN:
+                startContainer(true);
+                return true;
+            case JSON_ARRAY_BEGIN:
+                startContainer(false);
+                return true;
+            case JSON_QUOTATION_MARK:
+                appendString();
+                return false;
+            case 't':
+                readLiteral("true");
+                append(Tape.TRUE, 0);
+                return false;
+            case 'f':
+                readLiteral("false");
+                append(Tape.FALSE, 0);
+                return false;
+            case 'n':
+                readLiteral(JSON_NULL);
+                append(Tape.NULL, 0);
+                return false;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                readNumber();
+                return false;
+            default:
+                throw unexpected("\"Value\"");
+        }
+    }
+
+    private void startContainer(boolean isObject) {
+        pos++;
+        int depth = containers.depth();
+        if (depth == starts.length) {
+            starts = Arrays.copyOf(starts, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+        }
+
+        starts[depth] = size;
+        counts[depth] = 0;
+        containers.push(isObject);
+        append(isObject ? Tape.OBJECT : Tape.ARRAY, 0);
+    }
+
+    private void endContainer() {
+        int depth = containers.depth() - 1;
+        int start = starts[depth];
+        long count = Math.min(counts[depth], Tape.MAX_COUNT);
+        containers.pop();
+
+        append(Tape.END, start);
+        entries[start] |= (count << 32) | size;
+    }
+
+    private void appendString() {
+        int start = pos++;
+        while (true) {
+            while (pos + 8 <= limit) {
+                long mask = Swar.stringSpecial(words.getLong(pos));
+                if (mask != 0) {
+                    pos += Swar.firstByte(mask);
+                    break;
+                }
+                pos += 8;
+            }
+
+            if (pos >= limit) {
+                throw unexpected("\"\\\"\"");
+            }
+
+            int b = json[pos++] & 0xFF;
+            if (b == JSON_QUOTATION_MARK) {
+                break;
+            } else if (b == '\\') {
+                skipEscape();
+            } else if (b < 0x20) {
+                pos--;
+                throw unexpected("\"String Character\"");
+            }
+        }
+        append(Tape.STRING, start);
+    }
+
+    /**
+     * 校验并跳过反斜杠之后的转义字符，string 的内容在访问时才会解码
+     */
+    private void skipEscape() {
+        int c = peek();
+        pos++;
+        if (c == 'u') {
+            for (int i = 0; i < 4; i++, pos++) {
+                if (Character.digit(peek(), 16) < 0) {
+                    throw unexpected("\"Hex Digit\"");
+                }
+            }
+        } else if (c != '"' && c != '\\' && c != '/' && c != 'b' && c != 'f' && c != 'n' && c != 'r' && c != 't') {
+            pos--;
+            throw unexpected("\"Escape Character\"");
+        }
+    }
+
+    private void readNumber() {
+        int start = pos;
+        switch (numbers.scan()) {
+            case NumberScanner.LONG_NUMBER:
+                append(Tape.LONG, 0);
+                appendRaw(numbers.longValue);
+                break;
+            case NumberScanner.DOUBLE_NUMBER:
+                append(Tape.DOUBLE, 0);
+                appendRaw(Double.doubleToRawLongBits(numbers.doubleValue));
+                break;
+            default:
+                append(Tape.BIG_NUMBER, start);
+                appendRaw(pos);
+        }
+    }
+
+    private void readLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++, pos++) {
+            if (peek() != literal.charAt(i)) {
+                throw unexpected("\"" + literal.charAt(i) + "\"");
+            }
+        }
+    }
+
+    private void append(int type, long payload) {
+        appendRaw(((long) type << 56) | payload);
+    }
+
+    private void appendRaw(long entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = entry;
+    }
+
+    private void skipWhiteSpace() {
+        while (pos + 8 <= limit) {
+            long mask = Swar.nonWhitespace(words.getLong(pos));
+            if (mask != 0) {
+                pos += Swar.firstByte(mask);
+                return;
+            }
+            pos += 8;
+        }
+
+        while (pos < limit) {
+            byte b = json[pos];
+            if (b != WHITE_SPACE && b != NEW_LINE && b != LINE_FEED && b != TAB) {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private int peek() {
+        return pos < limit ? json[pos] & 0xFF : -1;
+    }
+
+    private JsonException unexpected(String expected) {
+        int c = peek();
+        return error("Expected: " + expected + " but got: " + (c == -1 ? "\"EOF\"" : "\"" + (char) c + "\""));
+    }
+
+    /**
+     * 在 {@code message} 之后附加当前位置的行数与列数，与 {@link AbstractReader} 的错误信息格式相同
+     */
+    private JsonException error(String message) {
+        //出错时才计算行数与列数
+        int line = 1;
+        int column = 0;
+        for (int i = 0; i < pos && i < limit; i++) {
+            if (json[i] == NEW_LINE) {
+                line++;
+                column = 0;
+            } else if ((json[i] & 0xC0) != 0x80) {
+                column++;
+            }
+        }
+
+        return new JsonException(message + ". Line: " + line + ", Column: " + (column + 1));
+    }
+}
@@ -0,0 +1,194 @@
+package cn.zcn.json.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 以 UTF-8 编码写入 {@link OutputStream} 或 {@link WritableByteChannel} 的输出目标。
+ * <p>
+ * 字符直接编码到 {@code byte[]} 缓存中，ASCII 字符逐个复制，不经过 {@link java.nio.charset.CharsetEncoder}。
+ * 缓存写满后整块写入底层的输出流。
+ *
+ * @author zicung
+ */
+class Utf8Output extends JsonOutput {
+
+    private final OutputStream stream;
+
+    private final WritableByteChannel channel;
+
+    private final byte[] buffer = new byte[8192];
+
+    /**
+     * 包装 {@code buffer}，用于写入 {@code channel}
+     */
+    private final ByteBuffer wrapped;
+
+    /**
+     * 下一个写入的位置
+     */
+    private int pos = 0;
+
+    /**
+     * 换行以及缩进的 UTF-8 序列，见 {@link #newLines(int)}
+     */
+    private byte[] newLines = new byte[0];
+
+    /**
+     * {@link #indent} 编码后的字节数
+     */
+    private int indentLength = indent.length();
+
+    Utf8Output(OutputStream stream) {
+        this.stream = stream;
+        this.channel = null;
+        this.wrapped = null;
+    }
+
+    Utf8Output(WritableByteChannel channel) {
+        this.stream = null;
+        this.channel = channel;
+        this.wrapped = ByteBuffer.wrap(buffer);
+    }
+
+    @Override
+    void write(char c) throws IOException {
+        if (pos == buffer.length) {
+            drain();
+        }
+        buffer[pos++] = (byte) c;
+    }
+
+    @Override
+    void write(CharSequence s, int start, int end) throws IOException {
+        byte[] buf = buffer;
+        while (start < end) {
+            //每个字符最多编码为 4 个字节，预留空间后无需在循环中检查缓存是否已满
+            if (buf.length - pos < 4) {
+                drain();
+            }
+
+            int stop = Math.min(end, start + ((buf.length - pos) >>> 2));
+            int p = pos;
+            while (start < stop) {
+                char c = s.charAt(start++);
+                if (c < 0x80) {
+                    buf[p++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[p++] = (byte) (0xC0 | c >>> 6);
+                    buf[p++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    int cp = Character.isHighSurrogate(c) && start < end ? codePoint(c, s.charAt(start)) : -1;
+                    if (cp == -1) {
+                        //与 String#getBytes 相同，无法配对的 surrogate 写入 '?'
+                        buf[p++] = '?';
+                    } else {
+                        start++;
+                        buf[p++] = (byte) (0xF0 | cp >>> 18);
+                        buf[p++] = (byte) (0x80 | cp >>> 12 & 0x3F);
+                        buf[p++] = (byte) (0x80 | cp >>> 6 & 0x3F);
+                        buf[p++] = (byte) (0x80 | cp & 0x3F);
+                    }
+                } else {
+                    buf[p++] = (byte) (0xE0 | c >>> 12);
+                    buf[p++] = (byte) (0x80 | c >>> 6 & 0x3F);
+                    buf[p++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            pos = p;
+        }
+    }
+
+    @Override
+    void writeLong(long value) throws IOException {
+        if (buffer.length - pos < Numbers.MAX_LONG_LENGTH) {
+            drain();
+        }
+        pos = Numbers.writeLong(value, buffer, pos);
+    }
+
+    @Override
+    void writeDouble(double value) throws IOException {
+        if (buffer.length - pos < Schubfach.MAX_DOUBLE_LENGTH) {
+            drain();
+        }
+        pos = Schubfach.writeDouble(value, buffer, pos);
+    }
+
+    @Override
+    void writeFloat(float value) throws IOException {
+        if (buffer.length - pos < Schubfach.MAX_DOUBLE_LENGTH) {
+            drain();
+        }
+        pos = Schubfach.writeFloat(value, buffer, pos);
+    }
+
+    private static int codePoint(char high, char low) {
+        return Character.isLowSurrogate(low) ? Character.toCodePoint(high, low) : -1;
+    }
+
+    @Override
+    void writeNewLine(int depth) throws IOException {
+        int length = 2 + depth * indentLength;
+        if (length > newLines.length) {
+            newLines = newLines(depth).getBytes(StandardCharsets.UTF_8);
+        }
+
+        if (length > buffer.length - pos) {
+            drain();
+            if (length > buffer.length) {
+                writeThrough(newLines, length);
+                return;
+            }
+        }
+
+        System.arraycopy(newLines, 0, buffer, pos, length);
+        pos += length;
+    }
+
+    @Override
+    void setIndent(String indent) {
+        super.setIndent(indent);
+        indentLength = indent.getBytes(StandardCharsets.UTF_8).length;
+        newLines = new byte[0];
+    }
+
+    @Override
+    void drain() throws IOException {
+        if (pos > 0) {
+            if (stream != null) {
+                stream.write(buffer, 0, pos);
+            } else {
+                ((Buffer) wrapped).clear().limit(pos);
+                writeFully(wrapped);
+            }
+            pos = 0;
+        }
+    }
+
+    private void writeThrough(byte[] bytes, int length) throws IOException {
+        if (stream != null) {
+            stream.write(bytes, 0, length);
+        } else {
+            writeFully(ByteBuffer.wrap(bytes, 0, length));
+        }
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    @Override
+    void flush() throws IOException {
+        drain();
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package cn.zcn.json.stream;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static cn.zcn.json.ast.JsonCharacters.JSON_QUOTATION_MARK;
+import static cn.zcn.json.ast.JsonCharacters.NEW_LINE;
+
+/**
+ * 直接读取 UTF-8 编码的 {@code byte[]} 的输入源。
+ * <p>
+ * JSON 的结构字符都是 ASCII，因此按字节扫描即可完成语法解析，多字节字符的字节（均不小于 0x80）不会与任何结构字符混淆。
+ * 只有在截取 string 和 member name 时才会将对应的字节区间解码为 {@code String}。
+ * <p>
+ * 跳过空白字符与扫描 string 时每次比较 8 个字节，见 {@link Swar}。8 个字节直接从 {@code byte[]} 中组装，
+ * 不需要为输入创建 {@link java.nio.ByteBuffer} 视图，复用的 reader 在读取新的输入时不会分配内存。
+ *
+ * @author zicung
+ */
+class Utf8Source extends JsonSource {
+
+    private byte[] bytes;
+
+    /**
+     * 输入内容的开始索引
+     */
+    private int offset;
+
+    /**
+     * 输入内容的结束索引（不包括）
+     */
+    private int limit;
+
+    /**
+     * 下一个将要读取的 byte 的索引位置
+     */
+    private int nextPos;
+
+    /**
+     * 标识当前读取的 Json Value 的开始索引
+     */
+    private int valueStartPos = -1;
+
+    Utf8Source(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    Utf8Source(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.nextPos = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * 从 {@code bytes} 的 {@code offset} 开始读取新的输入
+     */
+    void reset(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.nextPos = offset;
+        this.limit = offset + length;
+        this.valueStartPos = -1;
+    }
+
+    @Override
+    int read() {
+        if (nextPos >= limit) {
+            nextPos = limit + 1;
+            return -1;
+        }
+
+        return bytes[nextPos++] & 0xFF;
+    }
+
+    @Override
+    int skipWhiteSpace() {
+        int pos = nextPos;
+        while (pos + 8 <= limit) {
+            long mask = Swar.nonWhitespace(Swar.getLong(bytes, pos));
+            if (mask != 0) {
+                nextPos = pos + Swar.firstByte(mask);
+                return read();
+            }
+            pos += 8;
+        }
+
+        while (pos < limit && isWhitespace(bytes[pos])) {
+            pos++;
+        }
+
+        nextPos = pos;
+        return read();
+    }
+
+    @Override
+    String readString() throws IOException {
+        int start = nextPos;
+        int end = scanString(start);
+        if (end < limit && bytes[end] == JSON_QUOTATION_MARK) {
+            nextPos = end + 1;
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        appendPending(bytes, start, end - start);
+        nextPos = end;
+        return readUtf8Remaining();
+    }
+
+    @Override
+    String readName() throws IOException {
+        int start = nextPos;
+        int end = scanString(start);
+        if (end < limit && bytes[end] == JSON_QUOTATION_MARK) {
+            nextPos = end + 1;
+            return names.intern(bytes, start, end - start);
+        }
+
+        appendPending(bytes, start, end - start);
+        nextPos = end;
+        return names.intern(readUtf8Remaining());
+    }
+
+    @Override
+    void skipString() throws IOException {
+        int pos = nextPos;
+        for (; ; ) {
+            pos = scanString(pos);
+            if (pos >= limit) {
+                nextPos = limit + 1;
+                throw invalidStringCharacter(-1);
+            }
+
+            int b = bytes[pos];
+            if (b == JSON_QUOTATION_MARK) {
+                nextPos = pos + 1;
+                return;
+            } else if (b == '\\') {
+                nextPos = pos + 1;
+                readEscape();
+                pos = nextPos;
+            } else {
+                nextPos = pos + 1;
+                throw invalidStringCharacter(b);
+            }
+        }
+    }
+
+    /**
+     * 从 {@code pos} 开始查找第一个引号、反斜杠或者控制字符。
+     *
+     * @return 该字符的索引，没有找到时返回 {@code limit}
+     */
+    private int scanString(int pos) {
+        while (pos + 8 <= limit) {
+            long mask = Swar.stringSpecial(Swar.getLong(bytes, pos));
+            if (mask != 0) {
+                return pos + Swar.firstByte(mask);
+            }
+            pos += 8;
+        }
+
+        while (pos < limit) {
+            int b = bytes[pos] & 0xFF;
+            if (b == JSON_QUOTATION_MARK || b == '\\' || b < 0x20) {
+                return pos;
+            }
+            pos++;
+        }
+
+        return limit;
+    }
+
+    @Override
+    void openValue() {
+        valueStartPos = nextPos - 1;
+    }
+
+    @Override
+    String closeValue() {
+        String val = new String(bytes, valueStartPos, nextPos - valueStartPos - 1, StandardCharsets.UTF_8);
+        valueStartPos = -1;
+        return val;
+    }
+
+    @Override
+    void discardValue() {
+        valueStartPos = -1;
+    }
+
+    @Override
+    int line() {
+        int end = Math.min(nextPos, limit);
+        int line = 1;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] == NEW_LINE) {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    @Override
+    int column() {
+        int column = 0;
+        for (int i = Math.min(nextPos, limit) - 1; i >= offset && bytes[i] != NEW_LINE; i--) {
+            //多字节字符的后续字节不计入列数
+            if ((bytes[i] & 0xC0) != 0x80) {
+                column++;
+            }
+        }
+        return column;
+    }
+}
@@ -0,0 +1,64 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+
+/**
+ * {@link JsonValidator} 的校验结果。输入合法时总是返回 {@link #VALID}，只有不合法时才会创建新的实例。
+ *
+ * @author zicung
+ */
+public final class ValidationResult {
+
+    public static final ValidationResult VALID = new ValidationResult(null, 0, 0);
+
+    private final String message;
+
+    private final int line;
+
+    private final int column;
+
+    ValidationResult(String message, int line, int column) {
+        this.message = message;
+        this.line = line;
+        this.column = column;
+    }
+
+    public boolean isValid() {
+        return message == null;
+    }
+
+    /**
+     * 错误原因以及出错的位置。输入合法时返回 {@code null}
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 出错的行数，输入合法时返回 {@code 0}
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * 出错的列数，输入合法时返回 {@code 0}
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * 输入不合法时抛出不记录调用栈的 {@link JsonException}
+     */
+    public void throwIfInvalid() {
+        if (message != null) {
+            throw new JsonException(message, false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return message == null ? "VALID" : message;
+    }
+}
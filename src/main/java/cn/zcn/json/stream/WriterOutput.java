@@ -0,0 +1,126 @@
+package cn.zcn.json.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 写入 {@link Writer} 的输出目标，内容先缓存在 {@code char[]} 中，写满后整块写入。
+ *
+ * @author zicung
+ */
+class WriterOutput extends JsonOutput {
+
+    private final Writer out;
+
+    private final char[] buffer = new char[4096];
+
+    /**
+     * 数字先以 ASCII 写入该缓存，再复制到 {@code buffer}
+     */
+    private final byte[] digits = new byte[Schubfach.MAX_DOUBLE_LENGTH];
+
+    /**
+     * 下一个写入的位置
+     */
+    private int pos = 0;
+
+    /**
+     * 换行以及缩进的序列，见 {@link #newLines(int)}
+     */
+    private char[] newLines = new char[0];
+
+    WriterOutput(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    void write(char c) throws IOException {
+        if (pos == buffer.length) {
+            drain();
+        }
+        buffer[pos++] = c;
+    }
+
+    @Override
+    void write(CharSequence s, int start, int end) throws IOException {
+        while (start < end) {
+            if (pos == buffer.length) {
+                drain();
+            }
+
+            int n = Math.min(end - start, buffer.length - pos);
+            if (s instanceof String) {
+                ((String) s).getChars(start, start + n, buffer, pos);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    buffer[pos + i] = s.charAt(start + i);
+                }
+            }
+            pos += n;
+            start += n;
+        }
+    }
+
+    @Override
+    void writeLong(long value) throws IOException {
+        writeDigits(Numbers.writeLong(value, digits, 0));
+    }
+
+    @Override
+    void writeDouble(double value) throws IOException {
+        writeDigits(Schubfach.writeDouble(value, digits, 0));
+    }
+
+    @Override
+    void writeFloat(float value) throws IOException {
+        writeDigits(Schubfach.writeFloat(value, digits, 0));
+    }
+
+    private void writeDigits(int length) throws IOException {
+        if (buffer.length - pos < length) {
+            drain();
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[pos++] = (char) digits[i];
+        }
+    }
+
+    @Override
+    void writeNewLine(int depth) throws IOException {
+        int length = 2 + depth * indent.length();
+        if (length > newLines.length) {
+            newLines = newLines(depth).toCharArray();
+        }
+
+        if (length > buffer.length - pos) {
+            drain();
+            if (length > buffer.length) {
+                out.write(newLines, 0, length);
+                return;
+            }
+        }
+
+        System.arraycopy(newLines, 0, buffer, pos, length);
+        pos += length;
+    }
+
+    @Override
+    void setIndent(String indent) {
+        super.setIndent(indent);
+        newLines = new char[0];
+    }
+
+    @Override
+    void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+    }
+
+    @Override
+    void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+}
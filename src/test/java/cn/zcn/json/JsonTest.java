@@ -1,12 +1,21 @@
 package cn.zcn.json;
 
-import cn.zcn.json.ast.JsonException;
-import cn.zcn.json.ast.JsonObject;
-import cn.zcn.json.ast.JsonValue;
+import cn.zcn.json.ast.*;
+import cn.zcn.json.stream.DefaultJsonListener;
+import cn.zcn.json.stream.JsonParser;
+import cn.zcn.json.stream.JsonReader;
+import cn.zcn.json.stream.JsonReader2;
+import cn.zcn.json.stream.Projection;
 import cn.zcn.json.stream.JsonWriter;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -21,6 +30,118 @@ public class JsonTest {
         assertThat(json).isInstanceOf(JsonObject.class);
     }
 
+    @Test
+    public void testReadNestedArray() {
+        JsonValue json = Json.read("[[1,2],[3,[4]]]");
+        assertThat(json.asArray().getAsArray(1).getAsArray(1).get(0).getAsInteger()).isEqualTo(4);
+    }
+
+    @Test
+    public void testReadAfterError() {
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read("{\"a\": [1, 2"));
+        assertThat(Json.read("{\"a\": [1, 2]}").toString()).isEqualTo("{\"a\":[1,2]}");
+
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read("[{\"a\"}]".getBytes(StandardCharsets.UTF_8)));
+        assertThat(Json.read("[{\"a\": 1}]".getBytes(StandardCharsets.UTF_8)).toString()).isEqualTo("[{\"a\":1}]");
+    }
+
+    @Test
+    public void testReadNumbers() {
+        JsonArray json = Json.read("[0, 42, 9223372036854775807, 9223372036854775808, 1.5, 3.14159, 0.1, 1.00000000000000000001]").asArray();
+        assertThat(json.get(0).getAsNumber()).isEqualTo(0L);
+        assertThat(json.get(1).getAsNumber()).isEqualTo(42L);
+        assertThat(json.get(2).getAsNumber()).isEqualTo(Long.MAX_VALUE);
+        assertThat(json.get(3).getAsNumber().toString()).isEqualTo("9223372036854775808");
+        assertThat(json.get(4).getAsDouble()).isEqualTo(1.5);
+        assertThat(json.get(5).getAsDouble()).isEqualTo(3.14159);
+        assertThat(json.get(6).getAsDouble()).isEqualTo(0.1);
+        assertThat(json.get(7).getAsDouble()).isEqualTo(1.0);
+        assertThat(json.toString()).isEqualTo("[0,42,9223372036854775807,9223372036854775808,1.5,3.14159,0.1,1.00000000000000000001]");
+
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read("[1.]"));
+    }
+
+    @Test
+    public void testReadPrimitiveNumbers() {
+        List<Object> numbers = new ArrayList<>();
+        JsonListener listener = new JsonListener() {
+            @Override
+            public void endNumber(String number) {
+                numbers.add(number);
+            }
+
+            @Override
+            public void endLong(long number) {
+                numbers.add(number);
+            }
+
+            @Override
+            public void endDouble(double number) {
+                numbers.add(number);
+            }
+        };
+
+        new JsonReader("[12, 0.25, 99999999999999999999]".getBytes(StandardCharsets.UTF_8), listener).read();
+        assertThat(numbers).containsExactly(12L, 0.25, "99999999999999999999");
+    }
+
+    @Test
+    public void testReadNumberGrammar() {
+        String json = "[-1, -0, 0, -2.5, 1e2, 1E+2, 2.5e-3, -1.25E-10, 0.1e1, 1.7976931348623157e308, 4.9e-324, " +
+                "123456789012345678e-17, 1e400, 0e5, -9223372036854775808]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        String expected = "[-1,0,0,-2.5,100.0,100.0,0.0025,-1.25E-10,1.0,1.7976931348623157E308,4.9E-324," +
+                "1.2345678901234567,1e400,0.0,-9223372036854775808]";
+
+        for (JsonValue value : new JsonValue[]{Json.read(json), Json.read(bytes), Json.readLazy(bytes), new JsonReader2(bytes, new DefaultJsonListener()).read()}) {
+            JsonArray array = value.asArray();
+            assertThat(array.toString()).isEqualTo(expected);
+            assertThat(array.get(0).getAsNumber()).isEqualTo(-1L);
+            assertThat(array.get(12).getAsDouble()).isInfinite();
+        }
+
+        JsonParser parser = new JsonParser(bytes);
+        parser.nextToken();
+        parser.nextToken();
+        assertThat(parser.getLong()).isEqualTo(-1);
+        parser.nextToken();
+        parser.nextToken();
+        parser.nextToken();
+        assertThat(parser.getDouble()).isEqualTo(-2.5);
+
+        //跳过的数字
+        assertThat(Json.read("{\"b\": -1.5e-3, \"a\": 1, \"c\": [-2E+5]}", Projection.of("a")).toString()).isEqualTo("{\"a\":1}");
+
+        for (String invalid : new String[]{"[01]", "[-]", "[-a]", "[1.]", "[1e]", "[1e+]", "[.5]", "[+1]", "[1.5e-]"}) {
+            assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read(invalid));
+            assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.readLazy(invalid.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testReadUtf8Bytes() {
+        String json = "{\"name\": \"中文字符\", \"emoji\":\"\uD83D\uDE00\", \"list\":[1, \"ä\", {\"键\":22}]}";
+        JsonValue fromBytes = Json.read(json.getBytes(StandardCharsets.UTF_8));
+        assertThat(fromBytes).isInstanceOf(JsonObject.class);
+        assertThat(fromBytes.asObject().get("name").getAsString()).isEqualTo("中文字符");
+        assertThat(fromBytes.asObject().get("emoji").getAsString()).isEqualTo("\uD83D\uDE00");
+        assertThat(fromBytes.asObject().getAsArray("list").getAsObject(2).get("键").getAsInteger()).isEqualTo(22);
+        assertThat(fromBytes.toString()).isEqualTo(Json.read(json).toString());
+    }
+
+    @Test
+    public void testReadPath() throws IOException {
+        Path file = Files.createTempFile("toy-json", ".json");
+        try {
+            Files.write(file, "{\"name\": \"中文\", \"list\":[1, 2]}".getBytes(StandardCharsets.UTF_8));
+            JsonValue json = Json.read(file);
+            assertThat(json.asObject().get("name").getAsString()).isEqualTo("中文");
+            assertThat(json.asObject().getAsArray("list").size()).isEqualTo(2);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     @Test
     public void testReadEmptyString() {
         assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read(""));
@@ -36,4 +157,11 @@ public class JsonTest {
     public void readInvalidBeginningJson() {
         assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read("123 {\"a\":\"b\"}"));
     }
+
+    @Test
+    public void readInvalidBytes() {
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> Json.read(new byte[0]));
+        assertThatExceptionOfType(JsonException.class)
+                .isThrownBy(() -> Json.read("{\"a\":\"b\"} 123".getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,102 @@
+package cn.zcn.json.ast;
+
+import cn.zcn.json.Json;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author zicung
+ */
+public class JsonArrayTest {
+
+    @Test
+    public void testLongStorage() {
+        JsonArray array = Json.read("[1, 2, 3, 9007199254740993]").asArray();
+        assertThat(array.size()).isEqualTo(4);
+        assertThat(array.toLongArray()).containsExactly(1, 2, 3, 9007199254740993L);
+        assertThat(array.getDouble(1)).isEqualTo(2.0);
+        assertThat(array.get(3)).isEqualTo(new JsonPrimitive(9007199254740993L));
+        assertThat(array.toString()).isEqualTo("[1,2,3,9007199254740993]");
+    }
+
+    @Test
+    public void testDoubleStorage() {
+        JsonArray array = Json.read("[[0.5, 1.25], [2.5, 3.75]]").asArray();
+        assertThat(array.getAsArray(0).toDoubleArray()).containsExactly(0.5, 1.25);
+        assertThat(array.getAsArray(1).getDouble(1)).isEqualTo(3.75);
+        assertThat(array.getAsArray(1).getLong(0)).isEqualTo(2);
+        assertThat(array.toString()).isEqualTo("[[0.5,1.25],[2.5,3.75]]");
+    }
+
+    @Test
+    public void testSwitchToGeneralStorage() {
+        JsonArray array = Json.read("[1, 2, 1.5, \"a\"]").asArray();
+        assertThat(array.toString()).isEqualTo("[1,2,1.5,\"a\"]");
+
+        JsonArray longs = new JsonArray();
+        longs.addLong(1);
+        longs.addLong(2);
+        longs.addString("x");
+        assertThat(longs.size()).isEqualTo(3);
+        assertThat(longs.getLong(1)).isEqualTo(2);
+        assertThat(longs.getAsPrimitive(2).getAsString()).isEqualTo("x");
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(longs::toLongArray);
+    }
+
+    @Test
+    public void testCollectionOperations() {
+        JsonArray primitive = new JsonArray();
+        JsonArray general = new JsonArray();
+        for (long i = 0; i < 20; i++) {
+            primitive.addLong(i);
+            general.add(new JsonPrimitive(i));
+        }
+
+        assertThat(primitive).isEqualTo(general);
+        assertThat(primitive.hashCode()).isEqualTo(general.hashCode());
+        assertThat(primitive.contains(new JsonPrimitive(5L))).isTrue();
+        assertThat(primitive.contains(new JsonPrimitive(5))).isFalse();
+
+        assertThat(primitive.remove(new JsonPrimitive(0L))).isTrue();
+        primitive.removeAll(Arrays.asList(new JsonPrimitive(1L), new JsonPrimitive(2L)));
+        Iterator<JsonValue> iter = primitive.iterator();
+        iter.next();
+        iter.remove();
+        assertThat(primitive.toLongArray()).startsWith(4, 5, 6).hasSize(16);
+        assertThat(primitive.toArray()).hasSize(16);
+
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> primitive.get(16));
+
+        primitive.clear();
+        assertThat(primitive.isEmpty()).isTrue();
+        primitive.addDouble(0.5);
+        assertThat(primitive.toDoubleArray()).containsExactly(0.5);
+    }
+
+    @Test
+    public void testAddAllToItself() {
+        JsonArray longs = Json.read("[1, 2, 3]").asArray();
+        assertThat(longs.addAll(longs)).isTrue();
+        assertThat(longs.toLongArray()).containsExactly(1, 2, 3, 1, 2, 3);
+
+        JsonArray doubles = new JsonArray();
+        for (int i = 0; i < 20; i++) {
+            doubles.addDouble(i + 0.5);
+        }
+        doubles.addAll(doubles);
+        assertThat(doubles.size()).isEqualTo(40);
+        assertThat(doubles.getDouble(39)).isEqualTo(19.5);
+
+        JsonArray general = Json.read("[1, \"a\"]").asArray();
+        assertThat(general.addAll(general)).isTrue();
+        assertThat(general.toString()).isEqualTo("[1,\"a\",1,\"a\"]");
+
+        JsonArray empty = new JsonArray();
+        assertThat(empty.addAll(empty)).isFalse();
+        assertThat(empty.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,142 @@
+package cn.zcn.json.ast;
+
+import cn.zcn.json.Json;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author zicung
+ */
+public class JsonObjectTest {
+
+    @Test
+    public void testInsertionOrder() {
+        JsonObject json = new JsonObject();
+        json.set("b", 1);
+        json.set("a", "x");
+        json.set("c", true);
+        json.set("b", 2);
+
+        assertThat(json.size()).isEqualTo(3);
+        assertThat(json.keySet()).containsExactly("b", "a", "c");
+        assertThat(json.get("b")).isEqualTo(JsonPrimitive.valueOf(2));
+        assertThat(json.toString()).isEqualTo("{\"b\":2,\"a\":\"x\",\"c\":true}");
+    }
+
+    @Test
+    public void testHashedLookup() {
+        JsonObject json = new JsonObject();
+        int count = JsonObject.HASH_THRESHOLD * 8;
+        for (int i = 0; i < count; i++) {
+            json.set("key" + i, i);
+        }
+        json.set("key3", "three");
+
+        assertThat(json.size()).isEqualTo(count);
+        assertThat(json.get("key3").getAsString()).isEqualTo("three");
+        for (int i = 0; i < count; i++) {
+            assertThat(json.has("key" + i)).isTrue();
+        }
+        assertThat(json.get("missing")).isNull();
+
+        for (int i = 0; i < count; i += 2) {
+            assertThat(json.remove("key" + i)).isNotNull();
+        }
+        assertThat(json.size()).isEqualTo(count / 2);
+        assertThat(json.has("key2")).isFalse();
+        assertThat(json.get("key5").getAsNumber()).isEqualTo(5L);
+        assertThat(json.keySet().iterator().next()).isEqualTo("key1");
+
+        while (json.size() > 1) {
+            json.remove(json.keySet().iterator().next());
+        }
+        assertThat(json.keySet()).containsExactly("key" + (count - 1));
+        assertThat(json.get("key" + (count - 1)).getAsNumber()).isEqualTo((long) count - 1);
+    }
+
+    @Test
+    public void testViews() {
+        JsonObject json = Json.read("{\"a\": 1, \"b\": 2, \"c\": 3}").asObject();
+
+        for (Map.Entry<String, JsonValue> entry : json.entrySet()) {
+            entry.setValue(JsonPrimitive.valueOf(entry.getKey()));
+        }
+        assertThat(json.toString()).isEqualTo("{\"a\":\"a\",\"b\":\"b\",\"c\":\"c\"}");
+
+        Iterator<String> iter = json.keySet().iterator();
+        iter.next();
+        iter.next();
+        iter.remove();
+        assertThat(iter.next()).isEqualTo("c");
+        assertThat(iter.hasNext()).isFalse();
+        assertThat(json.keySet()).containsExactly("a", "c").contains("c");
+    }
+
+    @Test
+    public void testEquals() {
+        JsonObject a = Json.read("{\"x\": 1, \"y\": [1, 2]}").asObject();
+        JsonObject b = Json.read("{\"y\": [1, 2], \"x\": 1}").asObject();
+        assertThat(a).isEqualTo(b);
+        assertThat(a.hashCode()).isEqualTo(b.hashCode());
+
+        b.set("x", 2);
+        assertThat(a).isNotEqualTo(b);
+        b.remove("x");
+        assertThat(a).isNotEqualTo(b);
+    }
+
+    @Test
+    public void testSharedShape() {
+        JsonArray records = Json.read("[{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"name\": \"b\"}, {\"name\": \"c\", \"id\": 3}]").asArray();
+        JsonObject first = records.getAsObject(0);
+        JsonObject second = records.getAsObject(1);
+        JsonObject third = records.getAsObject(2);
+
+        assertThat(first.shape()).isNotNull().isSameAs(second.shape());
+        assertThat(third.shape()).isNotSameAs(first.shape());
+        assertThat(second.get("name").getAsString()).isEqualTo("b");
+        assertThat(first).isEqualTo(Json.read("{\"name\": \"a\", \"id\": 1}"));
+
+        //修改 JSON Object 不影响共享同一个 Shape 的其它 JSON Object
+        second.remove("id");
+        second.set("ts", 10);
+        assertThat(second.shape()).isNull();
+        assertThat(second.keySet()).containsExactly("name", "ts");
+        assertThat(first.keySet()).containsExactly("id", "name");
+
+        first.set("ts", 20);
+        assertThat(first.shape()).isNotNull();
+        assertThat(first.keySet()).containsExactly("id", "name", "ts");
+        assertThat(records.getAsObject(0).get("ts").getAsNumber()).isEqualTo(20L);
+    }
+
+    @Test
+    public void testSharedShapeLimits() {
+        Shape root = Shape.root();
+        JsonObject wide = new JsonObject(root);
+        for (int i = 0; i < 100; i++) {
+            wide.set("key" + i, i);
+        }
+        assertThat(wide.shape()).isNull();
+        assertThat(wide.size()).isEqualTo(100);
+        assertThat(wide.get("key99").getAsNumber()).isEqualTo(99L);
+
+        for (int i = 0; i < 100; i++) {
+            JsonObject json = new JsonObject(root);
+            json.set("id" + i, i);
+            json.set("name", "x");
+            assertThat(json.keySet()).containsExactly("id" + i, "name");
+            assertThat(json.get("name").getAsString()).isEqualTo("x");
+        }
+
+        JsonObject duplicated = new JsonObject(root);
+        duplicated.set("key0", 1);
+        duplicated.set("key0", 2);
+        assertThat(duplicated.size()).isEqualTo(1);
+        assertThat(duplicated.get("key0").getAsNumber()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,63 @@
+package cn.zcn.json.ast;
+
+import cn.zcn.json.Json;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author zicung
+ */
+public class JsonPrimitiveTest {
+
+    @Test
+    public void testCachedValues() {
+        assertThat(JsonPrimitive.valueOf(5)).isSameAs(JsonPrimitive.valueOf(5L));
+        assertThat(JsonPrimitive.valueOf(-128)).isSameAs(JsonPrimitive.valueOf(-128));
+        assertThat(JsonPrimitive.valueOf(1024)).isNotSameAs(JsonPrimitive.valueOf(1024));
+        assertThat(JsonPrimitive.valueOf("")).isSameAs(JsonPrimitive.valueOf(""));
+
+        JsonObject json = Json.read("{\"a\": 1, \"b\": \"\"}").asObject();
+        assertThat(json.get("a")).isSameAs(JsonPrimitive.valueOf(1));
+        assertThat(json.get("b")).isSameAs(JsonPrimitive.valueOf(""));
+    }
+
+    @Test
+    public void testInlineLong() {
+        JsonPrimitive primitive = JsonPrimitive.valueOf(9007199254740993L);
+        assertThat(primitive.isNumber()).isTrue();
+        assertThat(primitive.isString()).isFalse();
+        assertThat(primitive.getAsNumber()).isEqualTo(9007199254740993L);
+        assertThat(primitive.getAsInteger()).isEqualTo((int) 9007199254740993L);
+        assertThat(primitive.getAsDouble()).isEqualTo(9007199254740992.0);
+        assertThat(primitive.toString()).isEqualTo("9007199254740993");
+
+        assertThat(primitive).isEqualTo(new JsonPrimitive(9007199254740993L));
+        assertThat(new JsonPrimitive(9007199254740993L)).isEqualTo(primitive);
+        assertThat(primitive.hashCode()).isEqualTo(new JsonPrimitive(9007199254740993L).hashCode());
+        assertThat(primitive).isNotEqualTo(JsonPrimitive.valueOf(9007199254740993.0));
+    }
+
+    @Test
+    public void testInlineDouble() {
+        JsonPrimitive primitive = JsonPrimitive.valueOf(-1.5e300);
+        assertThat(primitive.isNumber()).isTrue();
+        assertThat(primitive.getAsNumber()).isEqualTo(-1.5e300);
+        assertThat(primitive.getAsDouble()).isEqualTo(-1.5e300);
+        assertThat(primitive.toString()).isEqualTo("-1.5E300");
+
+        assertThat(primitive).isEqualTo(new JsonPrimitive(-1.5e300));
+        assertThat(new JsonPrimitive(-1.5e300)).isEqualTo(primitive);
+        assertThat(primitive.hashCode()).isEqualTo(new JsonPrimitive(-1.5e300).hashCode());
+        assertThat(Json.read("[0.25, {\"a\": 0.25}]").asArray().getAsObject(1).get("a")).isEqualTo(JsonPrimitive.valueOf(0.25));
+    }
+
+    @Test
+    public void testLazyParsedNumber() {
+        JsonPrimitive primitive = Json.read("[123456789012345678901234567890]").asArray().get(0).asPrimitive();
+        assertThat(primitive.getAsNumber()).isInstanceOf(LazyParsedNumber.class);
+        assertThat(primitive.getAsDouble()).isEqualTo(1.2345678901234568E29);
+        assertThat(primitive.toString()).isEqualTo("123456789012345678901234567890");
+        assertThat(primitive).isEqualTo(new JsonPrimitive(new LazyParsedNumber("123456789012345678901234567890")));
+    }
+}
@@ -0,0 +1,103 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonArray;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonObject;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class DomReaderTest {
+
+    private static final String[] DOCUMENTS = {
+            "{}",
+            "[]",
+            " [ ] ",
+            "{\"a\": {}, \"b\": [], \"c\": [{}], \"d\": [[]]}",
+            "{\"name\": \"中文\\n\\u00e4\", \"ok\": true, \"no\": false, \"none\": null, \"n\": -12, \"d\": 1.5e-3, \"big\": 123456789012345678901234567890}",
+            "[1, 2, 3, -4, 9007199254740993]",
+            "[0.5, -1.25, 1e300, 2E-2]",
+            "[1, 1.5, \"a\", true, null, {\"k\": [1, {\"deep\": [[[\"x\"]]]}]}]",
+            "[{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"name\": \"b\"}, {\"name\": \"c\", \"id\": 3, \"id\": 4}]",
+            "{\"a\": 1, \"a\": 2}",
+            "\n\t{ \"a\" : [ 1 , { } , [ ] ] }\r\n"
+    };
+
+    @Test
+    public void testSameAsJsonReader() {
+        for (String json : DOCUMENTS) {
+            JsonValue expected = new JsonReader(new StringReader(json), new DefaultJsonListener()).read();
+
+            JsonValue fromChars = new DomReader(new StringReader(json)).read();
+            JsonValue fromBytes = new DomReader(json.getBytes(StandardCharsets.UTF_8)).read();
+            assertThat(fromChars).as(json).isEqualTo(expected);
+            assertThat(fromBytes).as(json).isEqualTo(expected);
+            assertThat(fromBytes.toString()).as(json).isEqualTo(expected.toString());
+        }
+    }
+
+    @Test
+    public void testPrimitiveStorage() {
+        JsonArray array = new DomReader("[[1, 2, 3], [0.5, 1.5]]".getBytes(StandardCharsets.UTF_8)).read().asArray();
+        assertThat(array.getAsArray(0).toLongArray()).containsExactly(1, 2, 3);
+        assertThat(array.getAsArray(1).toDoubleArray()).containsExactly(0.5, 1.5);
+    }
+
+    @Test
+    public void testDeepNesting() {
+        int depth = 100_000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append("{\"a\":[");
+        }
+        for (int i = 0; i < depth; i++) {
+            sb.append("]}");
+        }
+
+        JsonValue json = new DomReader(sb.toString().getBytes(StandardCharsets.UTF_8)).read();
+        for (int i = 0; i < 3; i++) {
+            json = json.asObject().getAsArray("a").get(0);
+        }
+        assertThat(json.asObject().has("a")).isTrue();
+    }
+
+    @Test
+    public void testReset() {
+        DomReader reader = new DomReader("{\"a\": [1, ".getBytes(StandardCharsets.UTF_8));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(reader::read);
+
+        reader.reset("{\"b\": {\"c\": 1}}".getBytes(StandardCharsets.UTF_8));
+        JsonObject json = reader.read().asObject();
+        assertThat(json.toString()).isEqualTo("{\"b\":{\"c\":1}}");
+
+        reader.reset(new StringReader("[true]"));
+        assertThat(reader.read().toString()).isEqualTo("[true]");
+    }
+
+    @Test
+    public void testInvalid() {
+        String[] invalid = {
+                "", "1", "\"a\"", "{", "[", "{\"a\"}", "{\"a\":}", "{\"a\":1,}", "[1,]", "[1 2]", "{\"a\":1 \"b\":2}",
+                "{1: 2}", "[1}", "{\"a\": 1]", "[tru]", "[nul]", "[01]", "[1.]", "[-]", "{} 1", "[] []", "[\"a]", "[,1]"
+        };
+
+        for (String json : invalid) {
+            assertThatExceptionOfType(JsonException.class).as(json)
+                    .isThrownBy(() -> new DomReader(json.getBytes(StandardCharsets.UTF_8)).read());
+            assertThatExceptionOfType(JsonException.class).as(json)
+                    .isThrownBy(() -> new DomReader(new StringReader(json)).read());
+        }
+
+        assertThatExceptionOfType(JsonException.class)
+                .isThrownBy(() -> new DomReader("{\"a\": 1 ]".getBytes(StandardCharsets.UTF_8)).read())
+                .withMessage("Expected: \"}\" , \",\" , but got: \"]\".Line: 1, Column: 9");
+    }
+}
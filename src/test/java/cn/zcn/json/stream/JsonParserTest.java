@@ -0,0 +1,108 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static cn.zcn.json.stream.JsonToken.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class JsonParserTest {
+
+    @Test
+    public void testNextToken() {
+        String json = "{\"id\": 12, \"name\":\"foo\", \"tags\":[true, false, null, 1.5, []], \"empty\":{}}";
+        JsonParser parser = new JsonParser(new StringReader(json));
+
+        List<JsonToken> tokens = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != END_DOCUMENT) {
+            tokens.add(token);
+            if (token == NUMBER && "id".equals(parser.getName())) {
+                assertThat(parser.getLong()).isEqualTo(12);
+            } else if (token == STRING) {
+                assertThat(parser.getString()).isEqualTo("foo");
+            } else if (token == NUMBER) {
+                assertThat(parser.getDouble()).isEqualTo(1.5);
+            }
+        }
+
+        assertThat(tokens).containsExactly(START_OBJECT, NAME, NUMBER, NAME, STRING, NAME,
+                START_ARRAY, TRUE, FALSE, NULL, NUMBER, START_ARRAY, END_ARRAY, END_ARRAY,
+                NAME, START_OBJECT, END_OBJECT, END_OBJECT);
+        assertThat(parser.nextToken()).isEqualTo(END_DOCUMENT);
+    }
+
+    @Test
+    public void testSkipChildren() {
+        String json = "{\"skip\": {\"a\": [1, {\"b\": \"]}\\\"\"}], \"c\": {}}, \"id\": 7}";
+        JsonParser parser = new JsonParser(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(parser.nextToken()).isEqualTo(START_OBJECT);
+        assertThat(parser.nextToken()).isEqualTo(NAME);
+        assertThat(parser.nextToken()).isEqualTo(START_OBJECT);
+        parser.skipChildren();
+        assertThat(parser.currentToken()).isEqualTo(END_OBJECT);
+        assertThat(parser.depth()).isEqualTo(1);
+        assertThat(parser.nextToken()).isEqualTo(NAME);
+        assertThat(parser.getName()).isEqualTo("id");
+        assertThat(parser.nextToken()).isEqualTo(NUMBER);
+        assertThat(parser.getInteger()).isEqualTo(7);
+        assertThat(parser.nextToken()).isEqualTo(END_OBJECT);
+        assertThat(parser.nextToken()).isEqualTo(END_DOCUMENT);
+    }
+
+    @Test
+    public void testSkipRootAndEmptyChildren() {
+        JsonParser parser = new JsonParser(new StringReader(" [ [], {} , [[1]] ] "));
+        assertThat(parser.nextToken()).isEqualTo(START_ARRAY);
+        assertThat(parser.nextToken()).isEqualTo(START_ARRAY);
+        parser.skipChildren();
+        assertThat(parser.currentToken()).isEqualTo(END_ARRAY);
+        assertThat(parser.nextToken()).isEqualTo(START_OBJECT);
+        parser.skipChildren();
+        assertThat(parser.currentToken()).isEqualTo(END_OBJECT);
+        assertThat(parser.nextToken()).isEqualTo(START_ARRAY);
+        assertThat(parser.depth()).isEqualTo(2);
+        parser.skipChildren();
+        assertThat(parser.depth()).isEqualTo(1);
+        assertThat(parser.nextToken()).isEqualTo(END_ARRAY);
+        assertThat(parser.nextToken()).isEqualTo(END_DOCUMENT);
+
+        parser = new JsonParser(new StringReader("{\"a\": [1, 2]} "));
+        assertThat(parser.nextToken()).isEqualTo(START_OBJECT);
+        parser.skipChildren();
+        assertThat(parser.depth()).isEqualTo(0);
+        assertThat(parser.nextToken()).isEqualTo(END_DOCUMENT);
+    }
+
+    @Test
+    public void testInvalidJson() {
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> readAll("123"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> readAll("{\"a\" 1}"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> readAll("[1 2]"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> readAll("[1,]"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> readAll("{\"a\":1]"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> readAll("{} {}"));
+
+        JsonParser parser = new JsonParser("[{\"a\":[1}]".getBytes(StandardCharsets.UTF_8));
+        parser.nextToken();
+        parser.nextToken();
+        assertThatExceptionOfType(JsonException.class).isThrownBy(parser::skipChildren);
+    }
+
+    private static void readAll(String json) {
+        JsonParser parser = new JsonParser(new StringReader(json));
+        while (parser.nextToken() != END_DOCUMENT) {
+            parser.currentToken();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonListener;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class JsonPathTest {
+
+    private static final String JSON = "{\"total\": 3, \"items\": [" +
+            "{\"id\": 1, \"name\": \"a\", \"tags\": [\"x\", \"y\"], \"meta\": {\"id\": 10}}," +
+            "{\"id\": 2, \"name\": \"b\", \"tags\": [], \"meta\": null}," +
+            "{\"id\": 3, \"name\": \"c\\\"\", \"tags\": [\"z\"], \"meta\": {\"deep\": [{\"id\": 30}]}}]," +
+            " \"next\": \"[{\\\"id\\\": 99}]\"}";
+
+    @Test
+    public void testSelect() {
+        assertThat(select("$.total")).containsExactly("3");
+        assertThat(select("$.items[*].id")).containsExactly("1", "2", "3");
+        assertThat(select("$['items'][1].name")).containsExactly("b");
+        assertThat(select("$.items[0:3:2].name")).containsExactly("a", "c\"");
+        assertThat(select("$.items[1:].id")).containsExactly("2", "3");
+        assertThat(select("$.items[0].tags")).containsExactly("[\"x\",\"y\"]");
+        assertThat(select("$.items[*].tags[0]")).containsExactly("x", "z");
+        assertThat(select("$.items[2].meta.*")).containsExactly("[{\"id\":30}]");
+        assertThat(select("$..id")).containsExactly("1", "10", "2", "3", "30");
+        assertThat(select("$..meta..id")).containsExactly("10", "30");
+        assertThat(select("$..[0].id")).containsExactly("1", "30");
+        assertThat(select("$.missing")).isEmpty();
+        assertThat(select("$")).hasSize(1);
+    }
+
+    @Test
+    public void testSelectNestedMatches() {
+        List<JsonValue> values = JsonPath.compile("$..a").read("{\"a\": {\"a\": 1}}");
+        assertThat(values).extracting(JsonValue::toString).containsExactly("1", "{\"a\":1}");
+    }
+
+    @Test
+    public void testSelectFromBytes() {
+        List<JsonValue> values = JsonPath.compile("$.items[*].name").read(JSON.getBytes(StandardCharsets.UTF_8));
+        assertThat(values).extracting(JsonValue::getAsString).containsExactly("a", "b", "c\"");
+    }
+
+    @Test
+    public void testSkipValues() {
+        List<String> names = new ArrayList<>();
+        JsonListener listener = new JsonListener() {
+            @Override
+            public void endObjectName(String name) {
+                names.add(name);
+            }
+
+            @Override
+            public boolean skipObjectValue(boolean container) {
+                return container;
+            }
+        };
+
+        new JsonReader(new StringReader(JSON), listener).read();
+        assertThat(names).containsExactly("total", "items", "next");
+    }
+
+    @Test
+    public void testSkippedNumbersAreValidated() {
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> JsonPath.compile("$.b").read("{\"a\":1-+e-,\"b\":1}"));
+        assertThat(JsonPath.compile("$.b").read("{\"a\":-1.5E-3,\"b\":1}")).extracting(JsonValue::toString).containsExactly("1");
+    }
+
+    @Test
+    public void testInvalidPath() {
+        for (String path : new String[]{"", "items", "$.", "$[", "$[1", "$[-1]", "$['a]", "$[1:2:0]", "$.a.[1]"}) {
+            assertThatExceptionOfType(JsonException.class).isThrownBy(() -> JsonPath.compile(path));
+        }
+    }
+
+    private static List<String> select(String path) {
+        List<String> values = new ArrayList<>();
+        for (JsonValue value : JsonPath.compile(path).read(JSON)) {
+            values.add(value.isString() ? value.getAsString() : value.toString());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,110 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonListener;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class JsonReaderTest {
+
+    @Test
+    public void testErrorMessages() {
+        assertThat(errorOf("1")).isEqualTo("Expected: \"[\" , \"{\" , but got: \"1\".Line: 1, Column: 1");
+        assertThat(errorOf("{1}")).isEqualTo("Expected: \"Pair Name\" , \"}\" , but got: \"1\".Line: 1, Column: 2");
+        assertThat(errorOf("{\"a\" 1}")).isEqualTo("Expected: \":\" , but got: \"1\".Line: 1, Column: 6");
+        assertThat(errorOf("{\"a\":}")).isEqualTo("Expected: \"Pair Value\" , \"[\" , \"{\" , but got: \"}\".Line: 1, Column: 6");
+        assertThat(errorOf("{\"a\":1,}")).isEqualTo("Expected: \"Pair Name\" , but got: \"}\".Line: 1, Column: 8");
+        assertThat(errorOf("[1 2]")).isEqualTo("Expected: \",\" , \"]\" , but got: \"2\".Line: 1, Column: 4");
+        assertThat(errorOf("[1,]")).isEqualTo("Expected: \"Array Element\" , \"[\" , \"{\" , but got: \"]\".Line: 1, Column: 4");
+        assertThat(errorOf("[]\n[]")).isEqualTo("Expected: \"EOF\" , but got: \"[\".Line: 2, Column: 1");
+    }
+
+    @Test
+    public void testInvalid() {
+        String[] invalid = {"", "{", "[", "[x]", "{\"a\": x}", "[1}", "{\"a\": 1]", "[tru]", "[01]", "[\"a]", "[,1]", "{\"a\":1}:"};
+        for (String json : invalid) {
+            assertThatExceptionOfType(JsonException.class).as(json)
+                    .isThrownBy(() -> new JsonReader(json.getBytes(StandardCharsets.UTF_8), new DefaultJsonListener()).read());
+        }
+    }
+
+    @Test
+    public void testListenerEvents() {
+        List<String> events = new ArrayList<>();
+        JsonListener listener = new JsonListener() {
+            @Override
+            public void startObject() {
+                events.add("{");
+            }
+
+            @Override
+            public void endObject() {
+                events.add("}");
+            }
+
+            @Override
+            public void startArray() {
+                events.add("[");
+            }
+
+            @Override
+            public void endArray() {
+                events.add("]");
+            }
+
+            @Override
+            public void endObjectName(String name) {
+                events.add(name + ":");
+            }
+
+            @Override
+            public void endObjectValue() {
+                events.add("member");
+            }
+
+            @Override
+            public void endArrayElement() {
+                events.add("element");
+            }
+
+            @Override
+            public void endLong(long number) {
+                events.add(String.valueOf(number));
+            }
+
+            @Override
+            public void endString(String string) {
+                events.add(string);
+            }
+
+            @Override
+            public boolean skipArrayElement(boolean container) {
+                return container;
+            }
+        };
+
+        JsonValue root = new JsonReader(new StringReader("{\"a\": [1, {\"x\": 2}, \"s\"], \"b\": 3}"), listener).read();
+        assertThat(root).isNull();
+        assertThat(events).containsExactly("{", "a:", "[", "1", "element", "s", "element", "]", "member", "b:", "3", "member", "}");
+    }
+
+    private static String errorOf(String json) {
+        try {
+            new JsonReader(new StringReader(json), new DefaultJsonListener()).read();
+        } catch (JsonException e) {
+            return e.getMessage();
+        }
+        throw new AssertionError("Expected JsonException");
+    }
+}
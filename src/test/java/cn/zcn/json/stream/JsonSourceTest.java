@@ -0,0 +1,258 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonArray;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonObject;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class JsonSourceTest {
+
+    private static final String JSON = "{\"name\": \"中文字符与 ASCII 混合的较长字符串\", \"list\":[1, 23456789, \"ä\", {\"键\":22}], \"ok\":true}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadDirectByteBuffer() {
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+        buffer.put((byte) ' ').put(bytes).flip();
+        buffer.position(1);
+
+        JsonValue json = new JsonReader(buffer, new DefaultJsonListener()).read();
+        assertThat(json.toString()).isEqualTo(readExpected().toString());
+        assertThat(buffer.position()).isEqualTo(1);
+    }
+
+    @Test
+    public void testReadValuesAcrossWindows() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), JSON.getBytes(StandardCharsets.UTF_8));
+
+        for (int windowSize = 1; windowSize <= 16; windowSize++) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                JsonValue json = new JsonReader(new FileChannelSource(channel, windowSize), new DefaultJsonListener()).read();
+                assertThat(json.toString()).isEqualTo(readExpected().toString());
+            }
+        }
+    }
+
+    @Test
+    public void testInternNames() {
+        String json = "[{\"id\":1,\"名字\":\"a\"},{\"id\":2,\"名字\":\"b\"}]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        JsonArray fromChars = new JsonReader(new StringReader(json), new DefaultJsonListener()).read().asArray();
+        JsonArray fromBytes = new JsonReader(bytes, new DefaultJsonListener()).read().asArray();
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        ((Buffer) direct).flip();
+        JsonArray fromDirect = new JsonReader(direct, new DefaultJsonListener()).read().asArray();
+
+        for (JsonArray array : new JsonArray[]{fromChars, fromBytes, fromDirect}) {
+            for (String name : array.getAsObject(1).keySet()) {
+                assertThat(name).isSameAs(names(fromChars.getAsObject(0)).get(name.equals("id") ? 0 : 1));
+            }
+        }
+    }
+
+    @Test
+    public void testNameTableIsBounded() {
+        NameTable table = new NameTable(2);
+        String a = table.intern("a".toCharArray(), 0, 1);
+        String b = table.intern(new byte[]{'b'}, 0, 1);
+        assertThat(table.intern(new byte[]{'a'}, 0, 1)).isSameAs(a);
+        assertThat(table.intern("b".toCharArray(), 0, 1)).isSameAs(b);
+
+        String c = table.intern("c".toCharArray(), 0, 1);
+        assertThat(c).isEqualTo("c");
+        assertThat(table.intern("c".toCharArray(), 0, 1)).isEqualTo("c").isNotSameAs(c);
+    }
+
+    @Test
+    public void testReadStrings() throws IOException {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longString.append((char) ('a' + i % 26)).append(i % 7 == 0 ? "中" : "");
+        }
+
+        String json = "[\"\", \"a\", \"1234567\", \"12345678\", \"\\\"\\\\\\/\\b\\f\\n\\r\\t\", " +
+                "\"\\u4e2d\\u6587\\ud83d\\ude00 text\", \"ä\\nb\", {\"a\\u0062\": \"" + longString + "\"}]";
+        String[] expected = {"", "a", "1234567", "12345678", "\"\\/\b\f\n\r\t", "中文\ud83d\ude00 text", "ä\nb"};
+
+        for (JsonValue value : readAll(json)) {
+            JsonArray array = value.asArray();
+            for (int i = 0; i < expected.length; i++) {
+                assertThat(array.get(i).getAsString()).isEqualTo(expected[i]);
+            }
+            assertThat(array.getAsObject(expected.length).get("ab").getAsString()).isEqualTo(longString.toString());
+        }
+    }
+
+    @Test
+    public void testReadInvalidStrings() {
+        for (String json : new String[]{"[\"a\\x\"]", "[\"a\\u12g4\"]", "[\"a\tb\"]", "[\"abc"}) {
+            assertThatExceptionOfType(JsonException.class)
+                    .isThrownBy(() -> new JsonReader(new StringReader(json), new DefaultJsonListener()).read());
+            assertThatExceptionOfType(JsonException.class)
+                    .isThrownBy(() -> new JsonReader(json.getBytes(StandardCharsets.UTF_8), new DefaultJsonListener()).read());
+        }
+    }
+
+    @Test
+    public void testUnescapeStrings() throws IOException {
+        String[][] escapes = {
+                {"\\\"", "\""}, {"\\\\", "\\"}, {"\\/", "/"}, {"\\b", "\b"}, {"\\f", "\f"}, {"\\n", "\n"},
+                {"\\r", "\r"}, {"\\t", "\t"}, {"\\u0041", "A"}, {"\\u00e4", "ä"}, {"\\u4E2D", "中"},
+                {"\\ud83d\\ude00", "😀"}, {"\\u0000", "\u0000"}
+        };
+
+        for (String[] escape : escapes) {
+            //转义字符分别位于短字符串与超过 8 个字节的字符串中，以及 name 中
+            String json = "{\"" + escape[0] + "\": [\"" + escape[0] + "\", \"abcdefgh" + escape[0] + "ijklmnop\"]}";
+            for (JsonValue value : readAll(json)) {
+                JsonArray array = value.asObject().getAsArray(escape[1]);
+                assertThat(array.get(0).getAsString()).isEqualTo(escape[1]);
+                assertThat(array.get(1).getAsString()).isEqualTo("abcdefgh" + escape[1] + "ijklmnop");
+            }
+        }
+    }
+
+    @Test
+    public void testRejectControlCharactersInStrings() throws IOException {
+        for (char c = 0; c < 0x20; c++) {
+            for (String json : new String[]{"[\"abcdefgh" + c + "\"]", "{\"a" + c + "\": 1}"}) {
+                for (String msg : readErrors(json)) {
+                    assertThat(msg).startsWith("Invalid control character in string: " + (int) c + ".");
+                }
+            }
+        }
+
+        //DEL 不是控制字符，可以直接出现在字符串中
+        for (JsonValue value : readAll("[\"a\u007fb\"]")) {
+            assertThat(value.asArray().get(0).getAsString()).isEqualTo("a\u007fb");
+        }
+    }
+
+    @Test
+    public void testLineAndColumnOfError() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            json.append("\n    \"中文\",");
+        }
+        json.append("\n  1, tx]");
+
+        for (String msg : readErrors(json.toString())) {
+            assertThat(msg).endsWith("Line: 102, Column: 7");
+        }
+    }
+
+    @Test
+    public void testColumnAcrossWindows() throws IOException {
+        StringBuilder json = new StringBuilder("[\n\n");
+        for (int i = 0; i < 600; i++) {
+            json.append("\"中文ä\", ");
+        }
+        json.append("tx]");
+
+        //600 个 7 列的 element 之后是 't'、'x'
+        for (String msg : readErrors(json.toString())) {
+            assertThat(msg).endsWith("Line: 3, Column: 4202");
+        }
+    }
+
+    @Test
+    public void testResetReader() {
+        JsonReader reader = new JsonReader(new StringReader("[1, {\"a\": "), new DefaultJsonListener());
+        assertThatExceptionOfType(JsonException.class).isThrownBy(reader::read);
+
+        for (int i = 0; i < 3; i++) {
+            reader.reset(new StringReader(JSON));
+            assertThat(reader.read().toString()).isEqualTo(readExpected().toString());
+
+            reader.reset(JSON.getBytes(StandardCharsets.UTF_8));
+            assertThat(reader.read().toString()).isEqualTo(readExpected().toString());
+        }
+
+        reader.reset("[\"a\", ".getBytes(StandardCharsets.UTF_8));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(reader::read);
+        reader.reset(new StringReader("  \n  [2]"));
+        assertThat(reader.read().toString()).isEqualTo("[2]");
+
+        JsonReader projecting = new JsonReader(new StringReader("{\"a\": [{\"b\": 1, \"c\": 2}"), new ProjectingJsonListener(Projection.of("a.b")));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(projecting::read);
+        projecting.reset(new StringReader("{\"a\": {\"b\": 1, \"c\": 2}, \"d\": 3}"));
+        assertThat(projecting.read().toString()).isEqualTo("{\"a\":{\"b\":1}}");
+    }
+
+    private List<JsonValue> readAll(String json) throws IOException {
+        List<JsonValue> values = new ArrayList<>();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        values.add(new JsonReader(new StringReader(json), new DefaultJsonListener()).read());
+        values.add(new JsonReader(bytes, new DefaultJsonListener()).read());
+        values.add(new JsonReader2(bytes, new DefaultJsonListener()).read());
+
+        File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        for (int windowSize : new int[]{1, 7, 64}) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                values.add(new JsonReader(new FileChannelSource(channel, windowSize), new DefaultJsonListener()).read());
+            }
+        }
+        return values;
+    }
+
+    private List<String> readErrors(String json) throws IOException {
+        List<String> messages = new ArrayList<>();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        messages.add(errorOf(() -> new JsonReader(new StringReader(json), new DefaultJsonListener()).read()));
+        messages.add(errorOf(() -> new JsonReader(bytes, new DefaultJsonListener()).read()));
+
+        File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        for (int windowSize : new int[]{1, 7, 64}) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                JsonReader reader = new JsonReader(new FileChannelSource(channel, windowSize), new DefaultJsonListener());
+                messages.add(errorOf(reader::read));
+            }
+        }
+        return messages;
+    }
+
+    private static String errorOf(Runnable read) {
+        try {
+            read.run();
+        } catch (JsonException e) {
+            return e.getMessage();
+        }
+        throw new AssertionError("Expected JsonException");
+    }
+
+    private static List<String> names(JsonObject object) {
+        return new ArrayList<>(object.keySet());
+    }
+
+    private static JsonValue readExpected() {
+        return new JsonReader(new StringReader(JSON), new DefaultJsonListener()).read();
+    }
+}
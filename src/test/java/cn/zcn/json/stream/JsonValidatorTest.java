@@ -0,0 +1,102 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.Json;
+import cn.zcn.json.ast.JsonException;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class JsonValidatorTest {
+
+    private static final String[] VALID = {
+            "{}", "[]", " [ ] \n",
+            "{\"a\": {}, \"b\": [], \"c\": [{}], \"d\": [[]]}",
+            "{\"name\": \"中文\\n\\u00e4\\\"\", \"ok\": true, \"no\": false, \"none\": null, \"n\": -12, \"d\": 1.5e-3}",
+            "[0, -0, 0.5, -1.25, 1e300, 2E-2, 3e+2, 123456789012345678901234567890]",
+            "[1, 1.5, \"a\", true, null, {\"k\": [1, {\"deep\": [[[\"x\"]]]}]}]",
+            "{\"a\": 1, \"a\": 2}"
+    };
+
+    private static final String[] INVALID = {
+            "", "1", "\"a\"", "{", "[", "{\"a\"}", "{\"a\":}", "{\"a\":1,}", "[1,]", "[1 2]", "{\"a\":1 \"b\":2}",
+            "{1: 2}", "[1}", "{\"a\": 1]", "[tru]", "[nul]", "[fals]", "[01]", "[1.]", "[-]", "[1e]", "[.5]", "{} 1", "[] []",
+            "[\"a]", "[,1]", "[x]", "[\"\\x\"]", "[\"\\u12\"]", "[\"\t\"]", "{\"\\q\": 1}"
+    };
+
+    @Test
+    public void testSameAsReader() {
+        for (String json : VALID) {
+            new DomReader(new StringReader(json)).read();
+            assertThat(Json.validate(json)).as(json).isSameAs(ValidationResult.VALID);
+            assertThat(Json.isValid(json.getBytes(StandardCharsets.UTF_8))).as(json).isTrue();
+            assertThat(new JsonValidator(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))).isValid()).as(json).isTrue();
+        }
+
+        for (String json : INVALID) {
+            assertThatExceptionOfType(JsonException.class).as(json)
+                    .isThrownBy(() -> new DomReader(new StringReader(json)).read());
+            assertThat(Json.isValid(json)).as(json).isFalse();
+            assertThat(Json.isValid(json.getBytes(StandardCharsets.UTF_8))).as(json).isFalse();
+            assertThat(new JsonValidator(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))).isValid()).as(json).isFalse();
+        }
+    }
+
+    @Test
+    public void testResult() {
+        ValidationResult result = Json.validate("{\"a\": [1,\n 2 3]}");
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getLine()).isEqualTo(2);
+        assertThat(result.getColumn()).isEqualTo(4);
+        assertThat(result.getMessage()).isEqualTo("Expected: \",\" , \"]\" , but got: \"3\". Line: 2, Column: 4");
+
+        result = Json.validate("[01]".getBytes(StandardCharsets.UTF_8));
+        assertThat(result.getMessage()).isEqualTo("Leading zeros are not allowed. Line: 1, Column: 3");
+
+        result = Json.validate("[\"\\x\"]");
+        assertThat(result.getMessage()).isEqualTo("Invalid escape character \"x\". Line: 1, Column: 4");
+        assertThat(result.getColumn()).isEqualTo(4);
+    }
+
+    @Test
+    public void testStacklessException() {
+        Json.validate("{\"a\": 1}").throwIfInvalid();
+
+        assertThatExceptionOfType(JsonException.class)
+                .isThrownBy(() -> Json.validate("{\"a\": tru}").throwIfInvalid())
+                .withMessage("Expected \"e\" but got \"}\". Line: 1, Column: 10")
+                .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+    }
+
+    @Test
+    public void testReset() {
+        JsonValidator validator = new JsonValidator("[\"".getBytes(StandardCharsets.UTF_8));
+        assertThat(validator.isValid()).isFalse();
+
+        validator.reset("{\"a\": [1, {\"b\": null}]}".getBytes(StandardCharsets.UTF_8));
+        assertThat(validator.validate()).isSameAs(ValidationResult.VALID);
+
+        validator.reset(new StringReader("[\"\\q\"]"));
+        assertThat(validator.validate().getMessage()).startsWith("Invalid escape character");
+    }
+
+    @Test
+    public void testDeepNesting() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sb.append('[');
+        }
+        assertThat(Json.isValid(sb.toString())).isFalse();
+        for (int i = 0; i < 100_000; i++) {
+            sb.append(']');
+        }
+        assertThat(Json.isValid(sb.toString())).isTrue();
+    }
+}
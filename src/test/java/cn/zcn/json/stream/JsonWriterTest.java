@@ -0,0 +1,195 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.Json;
+import cn.zcn.json.ast.JsonArray;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonObject;
+import cn.zcn.json.ast.JsonPrimitive;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class JsonWriterTest {
+
+    @Test
+    public void testWriteCompressed() {
+        JsonValue json = Json.read("{\"a\": [1, 2.5, true, null, \"中文 ä 😀\"], \"b\": {}, \"c\": []}");
+        assertThat(writeAll(json, true, null)).containsOnly("{\"a\":[1,2.5,true,null,\"中文 ä 😀\"],\"b\":{},\"c\":[]}");
+    }
+
+    @Test
+    public void testWriteFormatted() {
+        JsonValue json = Json.read("{\"a\": [1, {\"b\": \"c\"}], \"d\": {}}");
+        assertThat(writeAll(json, false, null)).containsOnly("{\r\n    \"a\": [\r\n        1,\r\n        {\r\n            \"b\": \"c\"\r\n        }\r\n    ],\r\n    \"d\": {}\r\n}");
+        assertThat(writeAll(json, false, "\t")).containsOnly("{\r\n\t\"a\": [\r\n\t\t1,\r\n\t\t{\r\n\t\t\t\"b\": \"c\"\r\n\t\t}\r\n\t],\r\n\t\"d\": {}\r\n}");
+    }
+
+    @Test
+    public void testWritePrimitiveArrays() {
+        JsonArray longs = Json.read("[1, -2, 9007199254740993]").asArray();
+        longs.addLong(Long.MIN_VALUE);
+        JsonArray doubles = Json.read("[0.5, -1.25e-10, 1e300]").asArray();
+        doubles.addDouble(Double.NaN);
+        assertThat(longs.isLongArray()).isTrue();
+        assertThat(doubles.isDoubleArray()).isTrue();
+
+        assertThat(writeAll(longs, true, null)).containsOnly("[1,-2,9007199254740993,-9223372036854775808]");
+        assertThat(writeAll(doubles, true, null)).containsOnly("[0.5,-1.25E-10,1.0E300,null]");
+        assertThat(writeAll(Json.read("[[1, 2], [0.5]]"), false, null))
+                .containsOnly("[\r\n    [\r\n        1,\r\n        2\r\n    ],\r\n    [\r\n        0.5\r\n    ]\r\n]");
+    }
+
+    @Test
+    public void testWriteLargeValues() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append(i % 5 == 0 ? "中" : "a").append(i % 997 == 0 ? "😀" : "");
+        }
+
+        //深度超过缩进序列的初始长度，字符串超过缓存的长度
+        JsonArray root = new JsonArray();
+        JsonArray array = root;
+        for (int i = 0; i < 40; i++) {
+            JsonArray child = new JsonArray();
+            array.add(child);
+            array = child;
+        }
+        JsonObject object = new JsonObject();
+        object.set("text", text.toString());
+        array.add(object);
+
+        for (boolean compressed : new boolean[]{true, false}) {
+            for (String written : writeAll(root, compressed, null)) {
+                assertThat(Json.read(written).toString()).isEqualTo(root.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testEscapeStrings() {
+        JsonObject json = new JsonObject();
+        json.set("a\"b", "quote\" backslash\\ slash/ \b\f\n\r\t \u0001\u001f 中文 😀");
+
+        String expected = "{\"a\\\"b\":\"quote\\\" backslash\\\\ slash/ \\b\\f\\n\\r\\t \\u0001\\u001f 中文 😀\"}";
+        assertThat(writeAll(json, true, null)).containsOnly(expected);
+        assertThat(Json.read(expected).toString()).isEqualTo(expected);
+
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.setAsciiOnly(true);
+        writer.write(json);
+        assertThat(out.toString()).isEqualTo("{\"a\\\"b\":\"quote\\\" backslash\\\\ slash/ \\b\\f\\n\\r\\t \\u0001\\u001f \\u4e2d\\u6587 \\ud83d\\ude00\"}");
+        assertThat(Json.read(out.toString()).toString()).isEqualTo(expected);
+    }
+
+    @Test
+    public void testGenerate() {
+        JsonValue expected = Json.read("{\"id\": 1, \"name\": \"a\\\"b\", \"ratio\": 0.5, \"ok\": true, \"none\": null, " +
+                "\"tags\": [\"x\", [], {}, [1, 2]], \"child\": {\"k\": [{\"v\": false}]}}");
+
+        for (boolean compressed : new boolean[]{true, false}) {
+            StringWriter dom = new StringWriter();
+            JsonWriter domWriter = new JsonWriter(dom);
+            domWriter.setCompressed(compressed);
+            domWriter.write(expected);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonWriter writer = new JsonWriter(out);
+            writer.setCompressed(compressed);
+            writer.beginObject()
+                    .name("id").value(1)
+                    .name("name").value(new StringBuilder("a\"b"))
+                    .name("ratio").value(0.5)
+                    .name("ok").value(true)
+                    .name("none").nullValue()
+                    .name("tags").beginArray().value("x").beginArray().endArray().beginObject().endObject().value(Json.read("[1, 2]")).endArray()
+                    .name("child").beginObject().name("k").beginArray().beginObject().name("v").value(false).endObject().endArray().endObject()
+                    .endObject();
+
+            //根节点结束后无需 flush
+            assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(dom.toString());
+        }
+    }
+
+    @Test
+    public void testGenerateInvalidTokens() {
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).beginObject().value(1));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).beginArray().name("a"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).beginObject().name("a").name("b"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).beginObject().name("a").endObject());
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).beginArray().endObject());
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).endArray());
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> new JsonWriter(new StringWriter()).beginArray().endArray().value(1));
+    }
+
+    @Test
+    public void testWriteNumbers() {
+        JsonArray json = new JsonArray();
+        for (Number n : new Number[]{0L, -7, Long.MIN_VALUE, Long.MAX_VALUE, 0.0, -0.0, 1.0, 0.1, 0.3, 100.0, 1e7, 1e-3, 1.5e-4,
+                9999999.0, 1e23, 4.9e-324, Double.MAX_VALUE, 2.2250738585072014e-308, 0.1f, 3.4028235e38f, 1.0e-45f, Double.NaN}) {
+            json.add(new JsonPrimitive(n));
+        }
+
+        assertThat(writeAll(json, true, null)).containsOnly("[0,-7,-9223372036854775808,9223372036854775807,0.0,-0.0,1.0,0.1,0.3,100.0," +
+                "1.0E7,0.001,1.5E-4,9999999.0,1.0E23,4.9E-324,1.7976931348623157E308,2.2250738585072014E-308,0.1,3.4028235E38,1.4E-45,null]");
+    }
+
+    @Test
+    public void testWriteShortestDoubles() {
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            float f = Float.intBitsToFloat(random.nextInt());
+            if (Double.isNaN(d) || Double.isInfinite(d) || Float.isNaN(f) || Float.isInfinite(f)) {
+                continue;
+            }
+
+            byte[] buf = new byte[Schubfach.MAX_DOUBLE_LENGTH];
+            String written = new String(buf, 0, Schubfach.writeDouble(d, buf, 0), StandardCharsets.US_ASCII);
+            assertThat(Double.parseDouble(written)).isEqualTo(d);
+            assertThat(significantDigits(written)).isLessThanOrEqualTo(significantDigits(Double.toString(d)));
+
+            written = new String(buf, 0, Schubfach.writeFloat(f, buf, 0), StandardCharsets.US_ASCII);
+            assertThat(Float.parseFloat(written)).isEqualTo(f);
+            assertThat(significantDigits(written)).isLessThanOrEqualTo(significantDigits(Float.toString(f)));
+        }
+    }
+
+    private static int significantDigits(String number) {
+        return new BigDecimal(number).stripTrailingZeros().precision();
+    }
+
+    private static String[] writeAll(JsonValue json, boolean compressed, String indent) {
+        StringWriter chars = new StringWriter();
+        write(new JsonWriter(chars), json, compressed, indent);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        write(new JsonWriter(stream), json, compressed, indent);
+
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        write(new JsonWriter(Channels.newChannel(channel)), json, compressed, indent);
+
+        return new String[]{chars.toString(), new String(stream.toByteArray(), StandardCharsets.UTF_8),
+                new String(channel.toByteArray(), StandardCharsets.UTF_8)};
+    }
+
+    private static void write(JsonWriter writer, JsonValue json, boolean compressed, String indent) {
+        writer.setCompressed(compressed);
+        if (indent != null) {
+            writer.setIndent(indent);
+        }
+        writer.write(json);
+    }
+}
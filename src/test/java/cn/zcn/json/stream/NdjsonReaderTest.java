@@ -0,0 +1,94 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class NdjsonReaderTest {
+
+    private static final int LINES = 20000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStreamInOrder() {
+        List<Long> ids = new NdjsonReader(lines()).stream()
+                .map(v -> v.asObject().get("id").getAsNumber().longValue())
+                .collect(Collectors.toList());
+
+        assertThat(ids).hasSize(LINES);
+        for (int i = 0; i < LINES; i++) {
+            assertThat(ids.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testReadFile() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), lines());
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            List<Long> ids = new ArrayList<>();
+            new NdjsonReader(file.toPath(), pool).forEach(v -> ids.add(v.asObject().get("id").getAsNumber().longValue()));
+            assertThat(ids).hasSize(LINES).isSorted();
+
+            AtomicLong sum = new AtomicLong();
+            List<JsonValue> values = Collections.synchronizedList(new ArrayList<>());
+            new NdjsonReader(file.toPath(), pool).forEachUnordered(v -> {
+                values.add(v);
+                sum.addAndGet(v.asObject().get("id").getAsNumber().longValue());
+            });
+            assertThat(values).hasSize(LINES);
+            assertThat(sum.get()).isEqualTo((long) LINES * (LINES - 1) / 2);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSkipBlankLines() {
+        byte[] json = "\n{\"a\":1}\r\n  \n[2]\n\n{}".getBytes(StandardCharsets.UTF_8);
+        try (Stream<JsonValue> values = new NdjsonReader(json).stream()) {
+            assertThat(values.map(JsonValue::toString)).containsExactly("{\"a\":1}", "[2]", "{}");
+        }
+    }
+
+    @Test
+    public void testInvalidLine() {
+        byte[] json = "{\"a\":1}\n{\"a\":}\n".getBytes(StandardCharsets.UTF_8);
+        assertThatExceptionOfType(JsonException.class)
+                .isThrownBy(() -> new NdjsonReader(json).forEach(v -> {
+                }))
+                .withMessageContaining("Offset: 8");
+    }
+
+    private static byte[] lines() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"名字").append(i).append("\",\"tags\":[1,2,3]}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.Json;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class ParallelArrayReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadObjects() throws IOException {
+        StringBuilder json = new StringBuilder(" [");
+        for (int i = 0; i < 2000; i++) {
+            json.append(i == 0 ? "" : ",\n").append("{\"id\":").append(i)
+                    .append(", \"text\":\"a, [b] {c}\\\" \\\\\", \"tags\":[").append(i % 3).append(", [\"],\"]]}");
+        }
+        json.append("] ");
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        String expected = Json.read(bytes).toString();
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int segmentSize : new int[]{1, 7, 64, 4096}) {
+                JsonValue value = new ParallelArrayReader(bytes, null, pool, segmentSize).read();
+                assertThat(value.toString()).isEqualTo(expected);
+            }
+
+            File file = folder.newFile();
+            Files.write(file.toPath(), bytes);
+            assertThat(new ParallelArrayReader(null, file.toPath(), pool, 64).read().toString()).isEqualTo(expected);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testReadNumbers() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            json.append(i == 0 ? "" : ",").append(i);
+        }
+        json.append("]");
+
+        JsonValue value = new ParallelArrayReader(json.toString().getBytes(StandardCharsets.UTF_8), null, ForkJoinPool.commonPool(), 100).read();
+        assertThat(value.asArray().size()).isEqualTo(10000);
+        for (int i = 0; i < 10000; i++) {
+            assertThat(value.asArray().get(i).getAsNumber().longValue()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testReadOtherRoots() {
+        for (String json : new String[]{"{\"a\":[1, 2, 3]}", "[]", "[[1, 2], [3]]", "[1]"}) {
+            JsonValue value = new ParallelArrayReader(json.getBytes(StandardCharsets.UTF_8), null, ForkJoinPool.commonPool(), 1).read();
+            assertThat(value.toString()).isEqualTo(Json.read(json).toString());
+        }
+    }
+
+    @Test
+    public void testInvalidArray() {
+        for (String json : new String[]{"[1, 2,, 3, 4]", "[1, 2, 3, 4,]", "[{\"a\":1}, {\"a\":}]", "[\"a\", \"b]"}) {
+            assertThatExceptionOfType(JsonException.class)
+                    .isThrownBy(() -> new ParallelArrayReader(json.getBytes(StandardCharsets.UTF_8), null, ForkJoinPool.commonPool(), 1).read());
+        }
+    }
+}
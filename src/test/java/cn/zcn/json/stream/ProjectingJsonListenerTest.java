@@ -0,0 +1,91 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.Json;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonObject;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author zicung
+ */
+public class ProjectingJsonListenerTest {
+
+    private static final String JSON = "{\"id\": 1, \"name\": \"a\", \"tags\": [\"x\", {\"k\": 1}]," +
+            " \"user\": {\"name\": \"u\", \"age\": 20, \"address\": {\"city\": \"c\", \"zip\": \"z\"}}," +
+            " \"items\": [{\"id\": 1, \"price\": 2.5}, {\"id\": 2, \"price\": 3}, [{\"id\": 3, \"price\": 4}]]}";
+
+    @Test
+    public void testProjection() {
+        JsonObject json = Json.read(JSON, Projection.of("id", "user.name", "user.address", "items.id")).asObject();
+
+        assertThat(json.toString()).isEqualTo("{\"id\":1,\"user\":{\"name\":\"u\",\"address\":{\"city\":\"c\",\"zip\":\"z\"}}," +
+                "\"items\":[{\"id\":1},{\"id\":2},[{\"id\":3}]]}");
+        assertThat(json.get("name")).isNull();
+    }
+
+    @Test
+    public void testNestedProjection() {
+        Projection projection = new Projection()
+                .include("tags")
+                .include("user", new Projection().include("address", new Projection().include("zip")));
+
+        JsonValue json = Json.read(JSON.getBytes(StandardCharsets.UTF_8), projection);
+        assertThat(json.toString()).isEqualTo("{\"tags\":[\"x\",{\"k\":1}],\"user\":{\"address\":{\"zip\":\"z\"}}}");
+    }
+
+    @Test
+    public void testSkippedValuesAreNotRead() {
+        List<String> strings = new ArrayList<>();
+        ProjectingJsonListener listener = new ProjectingJsonListener(Projection.of("user.name")) {
+            @Override
+            public void endString(String string) {
+                strings.add(string);
+                super.endString(string);
+            }
+        };
+
+        new JsonReader(JSON.getBytes(StandardCharsets.UTF_8), listener).read();
+        assertThat(strings).containsExactly("u");
+    }
+
+    @Test
+    public void testRootArray() {
+        JsonValue json = Json.read("[{\"a\": 1, \"b\": 2}, {\"b\": 3}]", Projection.of("b"));
+        assertThat(json.toString()).isEqualTo("[{\"b\":2},{\"b\":3}]");
+    }
+
+    @Test
+    public void testSkippedNumbersAreValidated() {
+        for (String json : new String[]{"{\"a\":1-+e-,\"b\":1}", "{\"a\":01,\"b\":1}", "{\"a\":1.,\"b\":1}", "{\"a\":-,\"b\":1}"}) {
+            assertThatExceptionOfType(JsonException.class).as(json).isThrownBy(() -> Json.read(json, Projection.of("b")));
+            assertThatExceptionOfType(JsonException.class).as(json)
+                    .isThrownBy(() -> Json.read(json.getBytes(StandardCharsets.UTF_8), Projection.of("b")));
+        }
+
+        JsonValue json = Json.read("{\"a\": [-0.5e+10, 123456789012345678901234567890], \"b\": 1}", Projection.of("b"));
+        assertThat(json.toString()).isEqualTo("{\"b\":1}");
+    }
+
+    @Test
+    public void testSkippedContainersAreValidated() {
+        String[] invalid = {"{\"a\":{x y : z},\"b\":1}", "{\"a\":[1.],\"b\":1}", "{\"a\":[1,],\"b\":1}", "{\"a\":[1 2],\"b\":1}",
+                "{\"a\":{\"k\" 1},\"b\":1}", "{\"a\":{,},\"b\":1}", "{\"a\":{\"k\":},\"b\":1}", "{\"a\":[tru],\"b\":1}",
+                "{\"a\":[{]},\"b\":1}", "{\"a\":[[]"};
+        for (String json : invalid) {
+            assertThatExceptionOfType(JsonException.class).as(json).isThrownBy(() -> Json.read(json, Projection.of("b")));
+            assertThatExceptionOfType(JsonException.class).as(json)
+                    .isThrownBy(() -> Json.read(json.getBytes(StandardCharsets.UTF_8), Projection.of("b")));
+        }
+
+        JsonValue json = Json.read("{\"a\": { } , \"c\": [ [ ] , {\"k\" : [1, \"]\", {}] } ], \"b\": 1}", Projection.of("b"));
+        assertThat(json.toString()).isEqualTo("{\"b\":1}");
+    }
+}
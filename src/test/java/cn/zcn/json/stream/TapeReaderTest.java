@@ -0,0 +1,109 @@
+package cn.zcn.json.stream;
+
+import cn.zcn.json.Json;
+import cn.zcn.json.ast.JsonArray;
+import cn.zcn.json.ast.JsonException;
+import cn.zcn.json.ast.JsonObject;
+import cn.zcn.json.ast.JsonValue;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author zicung
+ */
+public class TapeReaderTest {
+
+    private static final String JSON = "{\"id\": 12, \"name\":\"中文\", \"ok\":true, \"none\":null, \"big\":123456789012345678901234," +
+            " \"tags\":[true, false, null, 1.5, [], {}], \"points\":[1, 2, 3], \"nested\":{\"a\":{\"b\":[\"c\"]}}, \"id\": 13}";
+
+    @Test
+    public void testLazyRead() {
+        JsonObject json = read(JSON).asObject();
+        JsonObject expected = Json.read(JSON).asObject();
+
+        assertThat(json.size()).isEqualTo(expected.size());
+        assertThat(json.get("id").getAsInteger()).isEqualTo(13);
+        assertThat(json.get("name").getAsString()).isEqualTo("中文");
+        assertThat(json.get("ok").isTrue()).isTrue();
+        assertThat(json.get("none").isNull()).isTrue();
+        assertThat(json.get("missing")).isNull();
+        assertThat(json.has("big")).isTrue();
+        assertThat(json.get("big").getAsNumber().toString()).isEqualTo("123456789012345678901234");
+        assertThat(json.getAsArray("tags").size()).isEqualTo(6);
+        assertThat(json.getAsArray("tags").getDouble(3)).isEqualTo(1.5);
+        assertThat(json.getAsArray("points").toLongArray()).containsExactly(1, 2, 3);
+        assertThat(json.getAsObject("nested").getAsObject("a").getAsArray("b").get(0).getAsString()).isEqualTo("c");
+        assertThat(json.get("tags")).isSameAs(json.get("tags"));
+
+        assertThat(json.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void testReadEscapes() {
+        JsonObject json = read("{\"a\\u0062\": \"x\\\"y\\n\\u4e2d\", \"long string without escapes\": 1}").asObject();
+        assertThat(json.get("ab").getAsString()).isEqualTo("x\"y\n中");
+        assertThat(json.keySet()).containsExactly("ab", "long string without escapes");
+
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> read("[\"a\\x\"]"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> read("[\"a\\u12g4\"]"));
+        assertThatExceptionOfType(JsonException.class).isThrownBy(() -> read("[\"a\tb\"]"));
+    }
+
+    @Test
+    public void testModifyLazyValue() {
+        JsonObject json = read(JSON).asObject();
+        json.getAsObject("nested").set("x", 1);
+        json.getAsArray("points").addLong(4);
+        json.remove("big");
+
+        assertThat(json.getAsObject("nested").get("x").getAsInteger()).isEqualTo(1);
+        assertThat(json.getAsArray("points").toLongArray()).containsExactly(1, 2, 3, 4);
+        assertThat(json.has("big")).isFalse();
+        assertThat(json.keySet()).containsExactly("id", "name", "ok", "none", "tags", "points", "nested");
+    }
+
+    @Test
+    public void testEquals() {
+        JsonValue lazy = read("[{\"a\":[1,2]}, 0.5, \"s\"]");
+        JsonArray array = new JsonArray();
+        JsonObject object = new JsonObject();
+        JsonArray numbers = new JsonArray();
+        numbers.addLong(1);
+        numbers.addLong(2);
+        object.set("a", numbers);
+        array.add(object);
+        array.addDouble(0.5);
+        array.addString("s");
+
+        assertThat(lazy).isEqualTo(array);
+        assertThat(array).isEqualTo(lazy);
+        assertThat(lazy.hashCode()).isEqualTo(array.hashCode());
+    }
+
+    @Test
+    public void testInvalidJson() {
+        for (String json : new String[]{"", "1", "{\"a\" 1}", "[1 2]", "[1,]", "[{}, ]", "{\"a\":1]", "{} {}", "[tru]", "[\"a]", "[1."}) {
+            assertThatExceptionOfType(JsonException.class).as(json).isThrownBy(() -> read(json));
+        }
+    }
+
+    @Test
+    public void testSameErrorAsEagerReader() {
+        for (String json : new String[]{"[01]", "[\n -00.5]", "{\"a\": 1.e5}", "[-]"}) {
+            String eager = catchThrowableOfType(() -> Json.read(json.getBytes(StandardCharsets.UTF_8)), JsonException.class).getMessage();
+            String lazy = catchThrowableOfType(() -> read(json), JsonException.class).getMessage();
+            if (eager.startsWith("Leading zeros")) {
+                assertThat(lazy).as(json).isEqualTo(eager);
+            } else {
+                assertThat(lazy).as(json).endsWith(eager.substring(eager.indexOf(". Line: ")));
+            }
+        }
+    }
+
+    private static JsonValue read(String json) {
+        return new TapeReader(json.getBytes(StandardCharsets.UTF_8)).read();
+    }
+}